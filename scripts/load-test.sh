@@ -0,0 +1,42 @@
+#!/bin/sh
+# Compares the platform-thread, virtual-thread and reactive stacks under the production memory limit.
+#
+# For every concurrency level, drives cache misses through the proxy container against a
+# backend answering after BACKEND_DELAY_MS, then reports throughput, latency percentiles,
+# non-2xx replies and the container's peak memory. Needs docker, wrk and python3, and the jar
+# built with "gradle build".
+#
+# Usage: scripts/load-test.sh [platform|virtual|reactive]...
+set -eu
+
+MODES=${*:-platform virtual reactive}
+CONCURRENCY=${CONCURRENCY:-50 100 200 400 800 1600}
+BACKEND_DELAY_MS=${BACKEND_DELAY_MS:-300}
+DURATION=${DURATION:-30s}
+
+docker build -q -t backendify-load-test . >/dev/null
+python3 scripts/slow-backend.py 9001 "$BACKEND_DELAY_MS" &
+BACKEND_PID=$!
+trap 'kill $BACKEND_PID; docker rm -f backendify-load-test >/dev/null 2>&1 || true' EXIT
+
+for mode in $MODES; do
+    case $mode in
+        reactive) MODE_ARG=--spring.main.web-application-type=reactive ;;
+        *) MODE_ARG=--backendify.threads.mode=$mode ;;
+    esac
+    for concurrency in $CONCURRENCY; do
+        docker run -d --rm --name backendify-load-test --memory=128m --cpus=1 --network=host \
+            backendify-load-test us=http://localhost:9001 "$MODE_ARG" >/dev/null
+        until curl -sf http://localhost:9000/status >/dev/null; do sleep 1; done
+
+        (while docker stats --no-stream --format '{{.MemUsage}}' backendify-load-test; do sleep 1; done) > /tmp/load-test-memory 2>/dev/null &
+        STATS_PID=$!
+        echo "== mode=$mode concurrency=$concurrency backend_delay=${BACKEND_DELAY_MS}ms"
+        wrk -t4 -c "$concurrency" -d "$DURATION" --latency -s scripts/random-company.lua http://localhost:9000 \
+            | grep -E 'Requests/sec|Non-2xx|Socket errors| (50|90|99)%'
+        kill $STATS_PID 2>/dev/null || true
+        echo "  Peak memory: $(cut -d/ -f1 /tmp/load-test-memory | sort -h | tail -1)"
+
+        docker rm -f backendify-load-test >/dev/null
+    done
+done
@@ -0,0 +1,4 @@
+-- wrk script asking for a different company on every request, so every request is a cache miss
+request = function()
+    return wrk.format("GET", "/company?id=load-" .. math.random(1, 1000000000) .. "&country_iso=us")
+end
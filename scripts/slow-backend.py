@@ -0,0 +1,32 @@
+#!/usr/bin/env python3
+"""V1 backend stub answering every company after a fixed delay, for load tests.
+
+Usage: slow-backend.py PORT DELAY_MS
+"""
+import json
+import sys
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+
+class Handler(BaseHTTPRequestHandler):
+    protocol_version = "HTTP/1.1"
+
+    def do_GET(self):
+        time.sleep(DELAY_MS / 1000)
+        body = json.dumps({"cn": "Company " + self.path.rsplit("/", 1)[-1],
+                           "created_on": "2020-01-01T00:00:00Z"}).encode()
+        self.send_response(200)
+        self.send_header("Content-Type", "application/x-company-v1")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def log_message(self, *args):
+        pass
+
+
+if __name__ == "__main__":
+    PORT = int(sys.argv[1])
+    DELAY_MS = int(sys.argv[2])
+    ThreadingHTTPServer(("0.0.0.0", PORT), Handler).serve_forever()
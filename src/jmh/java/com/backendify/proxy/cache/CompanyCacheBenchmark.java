@@ -0,0 +1,81 @@
+package com.backendify.proxy.cache;
+
+import com.backendify.proxy.config.CacheConfig;
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import com.backendify.proxy.service.CoarseClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.cache.Cache;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares companyCache on the heap (Caffeine) with the off-heap store, both filled with a million
+ * companies: the latency of a hit, and the latency of a mix of hits and refreshed entries under
+ * four threads. SampleTime reports percentiles, so collector pauses show in the tail; the gc
+ * profiler adds the time spent in GC and the bytes allocated per operation.
+ * Run with "gradle jmh".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(jvmArgsAppend = {"-Xmx512m", "-XX:MaxDirectMemorySize=512m"})
+public class CompanyCacheBenchmark {
+
+    @Param({"HEAP", "OFF_HEAP"})
+    private CompanyCacheProperties.Store store;
+
+    @Param({"1000000"})
+    private int entries;
+
+    private Cache cache;
+    private CompanyKey[] keys;
+
+    @Setup
+    public void setUp() {
+        CompanyCacheProperties properties = new CompanyCacheProperties();
+        properties.setStore(store);
+        properties.setOffHeapBudget(DataSize.ofMegabytes(160));
+        properties.setHeapFraction(0.6);
+        cache = new CacheConfig().cacheManager(properties, new DiskCompanyCache(new DiskCacheProperties(), properties, null))
+                .getCache("companyCache");
+
+        keys = new CompanyKey[entries];
+        long now = CoarseClock.currentTimeMillis();
+        for (int i = 0; i < entries; i++) {
+            keys[i] = new CompanyKey((short) (i % 4), Integer.toString(10_000_000 + i));
+            cache.put(keys[i], CachedCompany.of("Company " + i + " Ltd", CachedCompany.NO_CLOSURE, now));
+        }
+    }
+
+    @Benchmark
+    public CachedCompany hit() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(entries)], CachedCompany.class);
+    }
+
+    // One lookup in ten stores a fresh reply, as refreshes and misses do
+    @Benchmark
+    @Threads(4)
+    public CachedCompany readMostly() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompanyKey key = keys[random.nextInt(entries)];
+        if (random.nextInt(10) == 0) {
+            CachedCompany company = CachedCompany.of("Company " + key.getId() + " Ltd", CachedCompany.NO_CLOSURE, CoarseClock.currentTimeMillis());
+            cache.put(key, company);
+            return company;
+        }
+        return cache.get(key, CachedCompany.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.backendify.proxy.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing closed_on/dissolved_on with {@link Rfc3339} against the java.time path it replaced,
+ * for valid and invalid timestamps, and writing activeUntil against Instant.toString().
+ * Run with "gradle jmh"; the gc profiler reports the allocation rate of each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Rfc3339Benchmark {
+
+    @Param({"2022-01-28T00:00:00Z", "2021-06-01T12:30:00.123+02:00", "2021-02-29T00:00:00Z"})
+    private String timestamp;
+
+    private char[] chars;
+    private long epochMillis;
+
+    @Setup
+    public void setUp() {
+        chars = timestamp.toCharArray();
+        epochMillis = Instant.parse("2021-06-01T10:30:00.123Z").toEpochMilli();
+    }
+
+    @Benchmark
+    public long parseWithJavaTime() {
+        try {
+            return OffsetDateTime.parse(timestamp, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Rfc3339.INVALID;
+        }
+    }
+
+    @Benchmark
+    public long parseWithRfc3339() {
+        return Rfc3339.parseEpochMillis(chars, 0, chars.length);
+    }
+
+    @Benchmark
+    public byte[] formatWithInstant() {
+        return Instant.ofEpochMilli(epochMillis).toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public byte[] formatWithRfc3339() {
+        return Rfc3339.formatUtc(epochMillis);
+    }
+}
@@ -1,6 +1,8 @@
 package com.backendify.proxy.application;
 
+import com.backendify.proxy.client.BackendConnectionPools;
 import com.backendify.proxy.service.CompanyService;
+import com.backendify.proxy.service.WarmUp;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
@@ -15,10 +17,14 @@ import java.util.Map;
 public class Application implements CommandLineRunner {
 
     private final CompanyService companyService;
+    private final BackendConnectionPools backendConnectionPools;
+    private final WarmUp warmUp;
 
     @Autowired
-    public Application(CompanyService companyService) {
+    public Application(CompanyService companyService, BackendConnectionPools backendConnectionPools, WarmUp warmUp) {
         this.companyService = companyService;
+        this.backendConnectionPools = backendConnectionPools;
+        this.warmUp = warmUp;
     }
 
     public static void main(String[] args) {
@@ -27,14 +33,17 @@ public class Application implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        // Filter out Spring Boot-specific arguments (like --server.port)
+        // Filter out Spring Boot-specific arguments (like --server.port or --backendify.pool.*)
         String[] customArgs = Arrays.stream(args)
-                .filter(arg -> !arg.startsWith("--server.port"))
+                .filter(arg -> !arg.startsWith("--"))
                 .toArray(String[]::new);
 
         // Parse command-line arguments
         Map<String, String> backendMappings = CommandLineArgsParser.parseArgs(customArgs);
+        backendConnectionPools.register(backendMappings);
         companyService.setBackendMappings(backendMappings);
+        // Runs before the application reports ready, /status answers 503 until then
+        warmUp.run();
     }
 
 }
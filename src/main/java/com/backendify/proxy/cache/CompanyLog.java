@@ -0,0 +1,530 @@
+package com.backendify.proxy.cache;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Append-only log of companyCache entries in fixed-size segments, located through an off-heap
+ * hash index.
+ * <p>
+ * Records are appended to the active segment, and a newer record of a company replaces the older
+ * one in the index. The segments are either memory-mapped files or direct buffers:
+ * <ul>
+ *     <li>File-backed logs refuse new entries when full. When fewer than two segments are free, the
+ *     oldest full one is compacted: the records the index still points to and that have not expired
+ *     are appended again, then the segment is reused. One free segment is kept for compaction, so
+ *     it can always make progress.</li>
+ *     <li>Logs in direct memory evict instead: when no segment is free, the oldest one is dropped
+ *     with its entries. As every entry lives for the same time, that is also the order in which
+ *     they would expire.</li>
+ * </ul>
+ * The index uses linear probing over 12-byte slots in a direct buffer: key hash, segment + 1
+ * (0 when the slot is empty) and record offset. Removals shift the following slots back, so there
+ * are no tombstones. Lookups share a lock, appends and compaction steps take it exclusively.
+ */
+public class CompanyLog implements Closeable {
+
+    // length, key hash, fetchedAt, activeUntil, country index, id length, name length (-1 for none)
+    private static final int RECORD_HEADER = 32;
+    private static final int HASH = 4;
+    private static final int FETCHED_AT = 8;
+    private static final int ACTIVE_UNTIL = 16;
+    private static final int COUNTRY = 24;
+    private static final int ID_LENGTH = 26;
+    private static final int NAME_LENGTH = 28;
+
+    static final int SLOT_BYTES = 12;
+    private static final int EMPTY = 0;
+    private static final int COMPACTION_BATCH = 256;
+
+    private final Path directory;  // Null for logs in direct memory
+    private final ByteBuffer[] segments;
+    private final int[] used;
+    private final int segmentBytes;
+    private final boolean evictWhenFull;
+    private final ArrayDeque<Integer> free = new ArrayDeque<>();
+    private final ArrayDeque<Integer> sealed = new ArrayDeque<>();  // Oldest first
+    private int active;
+
+    private final ByteBuffer index;
+    private final int indexMask;
+    private final int maxEntries;
+    private int entries;
+    private long evicted;
+
+    private final long lifetimeMillis;
+    private final LongSupplier clock;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // A log in segmentCount files of the directory, wiped first
+    public CompanyLog(Path directory, int segmentBytes, int segmentCount, int indexCapacity, long lifetimeMillis, LongSupplier clock) throws IOException {
+        this(directory, mapSegments(directory, segmentBytes, segmentCount), segmentBytes, indexCapacity, lifetimeMillis, clock);
+    }
+
+    // A log in direct buffers, evicting its oldest segment when full
+    public CompanyLog(int segmentBytes, int segmentCount, int indexCapacity, long lifetimeMillis, LongSupplier clock) {
+        this(null, allocateSegments(segmentBytes, segmentCount), segmentBytes, indexCapacity, lifetimeMillis, clock);
+    }
+
+    private CompanyLog(Path directory, ByteBuffer[] segments, int segmentBytes, int indexCapacity, long lifetimeMillis, LongSupplier clock) {
+        this.directory = directory;
+        this.segments = segments;
+        this.segmentBytes = segmentBytes;
+        this.used = new int[segments.length];
+        this.evictWhenFull = directory == null;
+        this.lifetimeMillis = lifetimeMillis;
+        this.clock = clock;
+        for (int i = 1; i < segments.length; i++) {
+            free.add(i);
+        }
+        active = 0;
+
+        int capacity = indexCapacity <= 2 ? 2 : 1 << (32 - Integer.numberOfLeadingZeros(indexCapacity - 1));
+        this.index = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        this.indexMask = capacity - 1;
+        this.maxEntries = capacity / 4 * 3;  // Probe sequences stay short below 75% load
+    }
+
+    private static ByteBuffer[] mapSegments(Path directory, int segmentBytes, int segmentCount) throws IOException {
+        if (segmentCount < 3) {
+            throw new IllegalArgumentException("At least 3 segments are needed, got " + segmentCount);
+        }
+        // Files of a previous run hold keys of its own country indexes, start from scratch
+        Files.createDirectories(directory);
+        ByteBuffer[] segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            try (FileChannel channel = FileChannel.open(segmentFile(directory, i), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            }
+        }
+        return segments;
+    }
+
+    private static ByteBuffer[] allocateSegments(int segmentBytes, int segmentCount) {
+        if (segmentCount < 2) {
+            throw new IllegalArgumentException("At least 2 segments are needed, got " + segmentCount);
+        }
+        ByteBuffer[] segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentBytes);
+        }
+        return segments;
+    }
+
+    // Returns false when the entry could not be stored: too large, expired, or no room left until compaction
+    public boolean put(CompanyKey key, CachedCompany company) {
+        byte[] id = key.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] name = company.getNameBytes();
+        int length = align(RECORD_HEADER + id.length + (name == null ? 0 : name.length));
+        if (length > segmentBytes || id.length > Short.MAX_VALUE) {
+            return false;
+        }
+        int hash = hashOf(key);
+        lock.writeLock().lock();
+        try {
+            if (company.getAgeMillis(clock.getAsLong()) >= lifetimeMillis) {
+                return false;
+            }
+            // Room first: evicting a segment moves index slots around
+            if (!ensureRoom(length, false)) {
+                return false;
+            }
+            int slot = findSlot(hash, key.getCountryIndex(), id);
+            while (slot < 0 && entries >= maxEntries) {
+                if (!evictWhenFull || sealed.isEmpty()) {
+                    return false;
+                }
+                evictSegment(sealed.pollFirst());
+            }
+            int offset = used[active];
+            writeRecord(segments[active], offset, length, hash, key.getCountryIndex(), id, company);
+            used[active] += length;
+            if (slot >= 0) {
+                setSlot(slot, hash, active, offset);
+            } else {
+                insertSlot(hash, active, offset);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns null when the company is not in the log or its record expired
+    public CachedCompany get(CompanyKey key) {
+        byte[] id = key.getId().getBytes(StandardCharsets.UTF_8);
+        int hash = hashOf(key);
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(hash, key.getCountryIndex(), id);
+            if (slot < 0) {
+                return null;
+            }
+            ByteBuffer segment = segments[segmentAt(slot)];
+            int offset = offsetAt(slot);
+            long fetchedAt = segment.getLong(offset + FETCHED_AT);
+            if (clock.getAsLong() - fetchedAt >= lifetimeMillis) {
+                return null;  // Compaction or eviction drops it
+            }
+            return readCompany(segment, offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(CompanyKey key) {
+        byte[] id = key.getId().getBytes(StandardCharsets.UTF_8);
+        int hash = hashOf(key);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(hash, key.getCountryIndex(), id);
+            if (slot >= 0) {
+                deleteSlot(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Compacts the oldest full segment when fewer than two are free. Returns the number of records moved.
+    public int compact() {
+        int segment;
+        int end;
+        lock.writeLock().lock();
+        try {
+            if (free.size() >= 2 || sealed.isEmpty()) {
+                return 0;
+            }
+            segment = sealed.peekFirst();
+            end = used[segment];
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // In batches, so lookups are not held up for a whole segment
+        int moved = 0;
+        int offset = 0;
+        ByteBuffer source = segments[segment];
+        while (offset < end) {
+            lock.writeLock().lock();
+            try {
+                for (int n = 0; n < COMPACTION_BATCH && offset < end; n++) {
+                    int length = source.getInt(offset);
+                    int slot = slotPointingAt(source.getInt(offset + HASH), segment, offset);
+                    if (slot >= 0) {
+                        if (clock.getAsLong() - source.getLong(offset + FETCHED_AT) >= lifetimeMillis || !ensureRoom(length, true)) {
+                            deleteSlot(slot);
+                        } else {
+                            segments[active].put(used[active], source, offset, length);
+                            setSlot(slot, indexHashAt(slot), active, used[active]);
+                            used[active] += length;
+                            moved++;
+                        }
+                    }
+                    offset += length;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            sealed.removeFirst();
+            used[segment] = 0;
+            free.addLast(segment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return moved;
+    }
+
+    // Weakly consistent: the lock is released between batches, so entries written meanwhile may be missed or seen twice
+    public void forEach(BiConsumer<CompanyKey, CachedCompany> action) {
+        int capacity = indexMask + 1;
+        for (int start = 0; start < capacity; start += COMPACTION_BATCH) {
+            List<CompanyKey> keys = new ArrayList<>();
+            List<CachedCompany> companies = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                long now = clock.getAsLong();
+                for (int slot = start; slot < Math.min(start + COMPACTION_BATCH, capacity); slot++) {
+                    if (index.getInt(slot * SLOT_BYTES + 4) == EMPTY) {
+                        continue;
+                    }
+                    ByteBuffer segment = segments[segmentAt(slot)];
+                    int offset = offsetAt(slot);
+                    if (now - segment.getLong(offset + FETCHED_AT) >= lifetimeMillis) {
+                        continue;
+                    }
+                    byte[] id = new byte[segment.getShort(offset + ID_LENGTH)];
+                    segment.get(offset + RECORD_HEADER, id);
+                    keys.add(new CompanyKey(segment.getShort(offset + COUNTRY), new String(id, StandardCharsets.UTF_8)));
+                    companies.add(readCompany(segment, offset));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                action.accept(keys.get(i), companies.get(i));
+            }
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < index.capacity(); i += 4) {
+                index.putInt(i, EMPTY);
+            }
+            entries = 0;
+            free.clear();
+            sealed.clear();
+            for (int i = 0; i < segments.length; i++) {
+                used[i] = 0;
+                if (i > 0) {
+                    free.add(i);
+                }
+            }
+            active = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int bytes : used) {
+                total += bytes;
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Entries dropped with their segment to make room, since the log was created
+    public long evictedCount() {
+        lock.readLock().lock();
+        try {
+            return evicted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long capacityBytes() {
+        return (long) segments.length * segmentBytes + index.capacity();
+    }
+
+    public int freeSegments() {
+        lock.readLock().lock();
+        try {
+            return free.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The buffers stay valid until they are garbage collected, the files go right away
+    @Override
+    public void close() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < segments.length; i++) {
+                Files.deleteIfExists(segmentFile(directory, i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Moves to a free segment when the active one is full. Files keep their last free segment for compaction.
+    private boolean ensureRoom(int length, boolean compacting) {
+        if (used[active] + length <= segmentBytes) {
+            return true;
+        }
+        if (evictWhenFull && !compacting && free.isEmpty()) {
+            evictSegment(sealed.pollFirst());
+        }
+        if (free.isEmpty() || (!compacting && !evictWhenFull && free.size() <= 1)) {
+            return false;
+        }
+        sealed.addLast(active);
+        active = free.pollFirst();
+        return true;
+    }
+
+    // Drops every entry whose current record is in the segment, then frees it
+    private void evictSegment(int segment) {
+        ByteBuffer buffer = segments[segment];
+        for (int offset = 0; offset < used[segment]; offset += buffer.getInt(offset)) {
+            int slot = slotPointingAt(buffer.getInt(offset + HASH), segment, offset);
+            if (slot >= 0) {
+                deleteSlot(slot);
+                evicted++;
+            }
+        }
+        used[segment] = 0;
+        free.addLast(segment);
+    }
+
+    private static CachedCompany readCompany(ByteBuffer segment, int offset) {
+        int nameLength = segment.getInt(offset + NAME_LENGTH);
+        byte[] name = null;
+        if (nameLength >= 0) {
+            name = new byte[nameLength];
+            segment.get(offset + RECORD_HEADER + segment.getShort(offset + ID_LENGTH), name);
+        }
+        return new CachedCompany(name, segment.getLong(offset + ACTIVE_UNTIL), segment.getLong(offset + FETCHED_AT));
+    }
+
+    private static void writeRecord(ByteBuffer segment, int offset, int length, int hash, short country, byte[] id, CachedCompany company) {
+        byte[] name = company.getNameBytes();
+        segment.putInt(offset, length);
+        segment.putInt(offset + HASH, hash);
+        segment.putLong(offset + FETCHED_AT, company.getFetchedAt());
+        segment.putLong(offset + ACTIVE_UNTIL, company.getActiveUntil());
+        segment.putShort(offset + COUNTRY, country);
+        segment.putShort(offset + ID_LENGTH, (short) id.length);
+        segment.putInt(offset + NAME_LENGTH, name == null ? -1 : name.length);
+        segment.put(offset + RECORD_HEADER, id);
+        if (name != null) {
+            segment.put(offset + RECORD_HEADER + id.length, name);
+        }
+    }
+
+    private int findSlot(int hash, short country, byte[] id) {
+        for (int slot = homeOf(hash), probes = 0; probes <= indexMask; slot = (slot + 1) & indexMask, probes++) {
+            int segment = index.getInt(slot * SLOT_BYTES + 4);
+            if (segment == EMPTY) {
+                return -1;
+            }
+            if (indexHashAt(slot) == hash && keyMatches(segment - 1, offsetAt(slot), country, id)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int slotPointingAt(int hash, int segment, int offset) {
+        for (int slot = homeOf(hash), probes = 0; probes <= indexMask; slot = (slot + 1) & indexMask, probes++) {
+            int slotSegment = index.getInt(slot * SLOT_BYTES + 4);
+            if (slotSegment == EMPTY) {
+                return -1;
+            }
+            if (slotSegment - 1 == segment && offsetAt(slot) == offset) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean keyMatches(int segment, int offset, short country, byte[] id) {
+        ByteBuffer buffer = segments[segment];
+        if (buffer.getShort(offset + COUNTRY) != country || buffer.getShort(offset + ID_LENGTH) != id.length) {
+            return false;
+        }
+        for (int i = 0; i < id.length; i++) {
+            if (buffer.get(offset + RECORD_HEADER + i) != id[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insertSlot(int hash, int segment, int offset) {
+        int slot = homeOf(hash);
+        while (index.getInt(slot * SLOT_BYTES + 4) != EMPTY) {
+            slot = (slot + 1) & indexMask;
+        }
+        setSlot(slot, hash, segment, offset);
+        entries++;
+    }
+
+    // Backward-shift deletion: later slots of the probe sequence move up so lookups never stop early
+    private void deleteSlot(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & indexMask; index.getInt(next * SLOT_BYTES + 4) != EMPTY; next = (next + 1) & indexMask) {
+            int home = homeOf(indexHashAt(next));
+            boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!stays) {
+                setSlot(hole, indexHashAt(next), segmentAt(next), offsetAt(next));
+                hole = next;
+            }
+        }
+        index.putInt(hole * SLOT_BYTES + 4, EMPTY);
+        entries--;
+    }
+
+    private void setSlot(int slot, int hash, int segment, int offset) {
+        int base = slot * SLOT_BYTES;
+        index.putInt(base, hash);
+        index.putInt(base + 4, segment + 1);
+        index.putInt(base + 8, offset);
+    }
+
+    private int indexHashAt(int slot) {
+        return index.getInt(slot * SLOT_BYTES);
+    }
+
+    private int segmentAt(int slot) {
+        return index.getInt(slot * SLOT_BYTES + 4) - 1;
+    }
+
+    private int offsetAt(int slot) {
+        return index.getInt(slot * SLOT_BYTES + 8);
+    }
+
+    private int homeOf(int hash) {
+        return hash & indexMask;
+    }
+
+    // Spreads CompanyKey.hashCode(), which is weak in its low bits for similar ids
+    private static int hashOf(CompanyKey key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    private static Path segmentFile(Path directory, int segment) {
+        return directory.resolve("segment-" + segment + ".log");
+    }
+}
@@ -0,0 +1,63 @@
+package com.backendify.proxy.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Second-level companyCache tier kept in memory-mapped files.
+ * <p>
+ * When {@code enabled}, entries evicted from companyCache for lack of room are appended to
+ * {@code segments} files of {@code segment-size} each under {@code directory}, and looked up there
+ * before calling a backend. An off-heap index of {@code index-capacity} slots (12 bytes each)
+ * locates them. Every {@code compaction-interval-ms}, the oldest segment is compacted when fewer
+ * than two are free. The files only live as long as the process.
+ */
+@ConfigurationProperties(prefix = "backendify.cache.disk")
+public class DiskCacheProperties {
+
+    private boolean enabled = false;
+    private String directory = "/tmp/backendify-l2";
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private int segments = 8;
+    private int indexCapacity = 1 << 20;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public DataSize getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(DataSize segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+
+    public int getIndexCapacity() {
+        return indexCapacity;
+    }
+
+    public void setIndexCapacity(int indexCapacity) {
+        this.indexCapacity = indexCapacity;
+    }
+}
@@ -0,0 +1,99 @@
+package com.backendify.proxy.cache;
+
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import com.backendify.proxy.service.CoarseClock;
+import com.backendify.proxy.service.MetricsService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Second level of companyCache: entries evicted from the heap for lack of room are kept in a
+ * {@link CompanyLog} on {@code /tmp}, and looked up there before calling a backend.
+ * <p>
+ * Does nothing unless {@code backendify.cache.disk.enabled} is set.
+ */
+@Component
+@EnableConfigurationProperties(DiskCacheProperties.class)
+public class DiskCompanyCache implements DisposableBean {
+
+    private final CompanyLog log;  // Null when disabled
+    private final MetricsService metricsService;
+    private final LongAdder compacted = new LongAdder();
+
+    @Autowired
+    public DiskCompanyCache(DiskCacheProperties properties, CompanyCacheProperties cacheProperties, MetricsService metricsService) {
+        this.metricsService = metricsService;
+        if (!properties.isEnabled()) {
+            this.log = null;
+            return;
+        }
+        try {
+            this.log = new CompanyLog(Paths.get(properties.getDirectory()), Math.toIntExact(properties.getSegmentSize().toBytes()),
+                    properties.getSegments(), properties.getIndexCapacity(),
+                    cacheProperties.getHardTtl().plus(cacheProperties.getStaleGrace()).toMillis(), CoarseClock::currentTimeMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the disk cache in " + properties.getDirectory(), e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    // Called from the companyCache removal listener, off the request path
+    public void spill(CompanyKey key, CachedCompany company) {
+        if (log != null) {
+            metricsService.incrementDiskCacheSpillCount(log.put(key, company));
+        }
+    }
+
+    public CachedCompany get(CompanyKey key) {
+        if (log == null) {
+            return null;
+        }
+        CachedCompany company = log.get(key);
+        if (company != null) {
+            metricsService.incrementDiskCacheHitCount();
+        } else {
+            metricsService.incrementDiskCacheMissCount();
+        }
+        return company;
+    }
+
+    public void evict(CompanyKey key) {
+        if (log != null) {
+            log.remove(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${backendify.cache.disk.compaction-interval-ms:1000}")
+    public void compact() {
+        if (log != null) {
+            compacted.add(log.compact());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${backendify.metrics.publish-interval-ms:10000}")
+    public void publishStats() {
+        if (log != null) {
+            metricsService.recordDiskCacheStats(log.size(), log.usedBytes(), log.freeSegments(), compacted.sumThenReset());
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.backendify.proxy.cache;
+
+/**
+ * Approximate access counts of cache keys in a count-min sketch of counters that saturate at 15.
+ * <p>
+ * Every key maps to one counter in each of four rows and its count is the smallest of them, so
+ * collisions can only overestimate it. Only the smallest counters are incremented (conservative
+ * update), which keeps that overestimate low. After {@code 10 * width} increments every counter
+ * is halved, so counts reflect recent traffic rather than all time.
+ * <p>
+ * Updates are not synchronized: under contention an increment may be lost, which only makes a
+ * count a little lower.
+ */
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final byte[] counters;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    public FrequencySketch(int width) {
+        this.width = width <= 2 ? 2 : 1 << (32 - Integer.numberOfLeadingZeros(width - 1));
+        this.counters = new byte[DEPTH * this.width];
+        this.sampleSize = 10 * this.width;
+    }
+
+    // Counts one access and returns the new estimate
+    public int increment(int hash) {
+        int min = frequency(hash);
+        if (min < MAX_COUNT) {
+            for (int row = 0; row < DEPTH; row++) {
+                int index = indexOf(hash, row);
+                if (counters[index] == min) {
+                    counters[index]++;
+                }
+            }
+            min++;
+        }
+        if (++additions >= sampleSize) {
+            age();
+        }
+        return min;
+    }
+
+    public int frequency(int hash) {
+        int min = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters[indexOf(hash, row)]);
+        }
+        return min;
+    }
+
+    private void age() {
+        additions = 0;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>= 1;
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+}
@@ -0,0 +1,105 @@
+package com.backendify.proxy.cache;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+
+/**
+ * companyCache kept in direct memory: a {@link CompanyLog} whose records and index both live
+ * outside the heap, so millions of entries add nothing for the garbage collector to trace.
+ * <p>
+ * Only {@link CompanyKey} keys and {@link CachedCompany} values are accepted. Every hit decodes
+ * a new {@link CachedCompany}, short-lived garbage in place of long-lived entries. When the budget
+ * is used up, the oldest segment is evicted.
+ */
+public class OffHeapCompanyCache extends AbstractValueAdaptingCache {
+
+    // A fifth of the budget for the index, which holds 3 entries for every 4 slots
+    private static final int INDEX_SHARE = 5;
+
+    private final String name;
+    private final CompanyLog log;
+
+    public OffHeapCompanyCache(String name, CompanyLog log) {
+        super(false);
+        this.name = name;
+        this.log = log;
+    }
+
+    // Splits the budget between index and segments, both allocated right away
+    public static OffHeapCompanyCache withBudget(String name, long budgetBytes, int segmentBytes, long lifetimeMillis, LongSupplier clock) {
+        int indexCapacity = Integer.highestOneBit((int) Math.min(budgetBytes / INDEX_SHARE / CompanyLog.SLOT_BYTES, 1 << 30));
+        long segmentCount = (budgetBytes - (long) indexCapacity * CompanyLog.SLOT_BYTES) / segmentBytes;
+        if (segmentCount < 2) {
+            throw new IllegalArgumentException("An off-heap budget of " + budgetBytes + " bytes leaves room for less than 2 segments of " + segmentBytes);
+        }
+        return new OffHeapCompanyCache(name, new CompanyLog(segmentBytes, (int) segmentCount, indexCapacity, lifetimeMillis, clock));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CompanyLog getNativeCache() {
+        return log;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return log.get(companyKey(key));
+    }
+
+    // Not synchronized across callers: CompanyService already shares one backend call between concurrent misses
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        @SuppressWarnings("unchecked")
+        T value = (T) lookup(key);
+        if (value != null) {
+            return value;
+        }
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        if (!(value instanceof CachedCompany)) {
+            throw new IllegalArgumentException("Only CachedCompany values can be stored off-heap, got " + value.getClass().getName());
+        }
+        CompanyKey companyKey = companyKey(key);
+        if (!log.put(companyKey, (CachedCompany) value)) {
+            log.remove(companyKey);  // Too large or already expired: not cached, and an older copy must not be served
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        log.remove(companyKey(key));
+    }
+
+    @Override
+    public void clear() {
+        log.clear();
+    }
+
+    private static CompanyKey companyKey(Object key) {
+        if (!(key instanceof CompanyKey)) {
+            throw new IllegalArgumentException("Only CompanyKey keys can be stored off-heap, got " + key);
+        }
+        return (CompanyKey) key;
+    }
+}
@@ -0,0 +1,58 @@
+package com.backendify.proxy.client;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * The backend call made by the thread the handle is bound to. It names the country the call is
+ * for, so the request goes through that country's pool, and lets another thread abort the
+ * request, e.g. to cancel the attempt that lost a hedged call.
+ */
+public final class BackendCallHandle {
+
+    private static final ThreadLocal<BackendCallHandle> CURRENT = new ThreadLocal<>();
+
+    private final String country;
+    private volatile HttpUriRequest request;
+    private volatile boolean aborted;
+
+    public BackendCallHandle(String country) {
+        this.country = country;
+    }
+
+    // Returns null when no handle is bound to the current thread
+    public static BackendCallHandle current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(BackendCallHandle handle) {
+        CURRENT.set(handle);
+    }
+
+    public static void reset() {
+        CURRENT.remove();
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void abort() {
+        aborted = true;
+        HttpUriRequest current = request;
+        if (current != null) {
+            current.abort();
+        }
+    }
+
+    void register(HttpUriRequest request) {
+        this.request = request;
+        // The abort may have come in before the request was created
+        if (aborted) {
+            request.abort();
+        }
+    }
+}
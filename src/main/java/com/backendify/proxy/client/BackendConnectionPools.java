@@ -0,0 +1,126 @@
+package com.backendify.proxy.client;
+
+import com.backendify.proxy.resilience.AdaptiveTimeouts;
+import com.backendify.proxy.service.MetricsService;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Routes backend requests to a dedicated connection pool per country backend.
+ * <p>
+ * Pools are keyed by country, found from the {@link BackendCallHandle} bound to the calling
+ * thread. Countries that share a backend origin still get a pool each, with their own settings,
+ * so together they may hold the sum of their connection limits to that origin. Requests made
+ * without a handle, or for a country that was never registered, go through a shared default pool.
+ */
+@Component
+public class BackendConnectionPools implements ClientHttpRequestFactory, DisposableBean {
+
+    private static final String DEFAULT_POOL = "default";
+
+    private final BackendPoolProperties properties;
+    private final MetricsService metricsService;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+    private final ScheduledExecutorService abortScheduler;
+    private final BackendPool defaultPool;
+    private volatile Map<String, BackendPool> poolsByCountry = Map.of();
+
+    @Autowired
+    public BackendConnectionPools(BackendPoolProperties properties, MetricsService metricsService, AdaptiveTimeouts adaptiveTimeouts) {
+        this.properties = properties;
+        this.metricsService = metricsService;
+        this.adaptiveTimeouts = adaptiveTimeouts;
+        ScheduledThreadPoolExecutor abortScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "backend-abort-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most requests complete well before their abort is due, cancelled aborts must not pile up in the queue
+        abortScheduler.setRemoveOnCancelPolicy(true);
+        this.abortScheduler = abortScheduler;
+        this.defaultPool = new BackendPool(DEFAULT_POOL, DEFAULT_POOL, properties.getDefaults(), () -> -1, abortScheduler);
+    }
+
+    // Creates one pool per country from the countryCode=backendUrl mappings
+    public synchronized void register(Map<String, String> backendMappings) {
+        Map<String, BackendPool> pools = new HashMap<>();
+        backendMappings.forEach((countryCode, backendUrl) -> pools.put(countryCode, new BackendPool(countryCode,
+                originOf(URI.create(backendUrl)), properties.settingsFor(countryCode),
+                () -> adaptiveTimeouts.timeoutFor(countryCode), abortScheduler)));
+
+        Map<String, BackendPool> previous = poolsByCountry;
+        poolsByCountry = pools;
+        previous.values().forEach(BackendPool::close);
+    }
+
+    // Opens keep-alive connections to every registered backend ahead of traffic. Returns the number opened.
+    public int warmUp(int connectionsPerBackend) {
+        int opened = 0;
+        for (BackendPool pool : poolsByCountry.values()) {
+            opened += pool.warmUp(connectionsPerBackend);
+        }
+        return opened;
+    }
+
+    public BackendPool poolFor(String countryCode) {
+        BackendPool pool = countryCode == null ? null : poolsByCountry.get(countryCode);
+        return pool != null ? pool : defaultPool;
+    }
+
+    // Current timeout of every registered backend, by country
+    public Map<String, Long> currentTimeouts() {
+        Map<String, Long> timeouts = new TreeMap<>();
+        poolsByCountry.values().forEach(pool -> timeouts.put(pool.getCountry(), pool.getTimeoutMillis()));
+        return timeouts;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        BackendCallHandle handle = BackendCallHandle.current();
+        return poolFor(handle != null ? handle.getCountry() : null).getRequestFactory().createRequest(uri, httpMethod);
+    }
+
+    // Publishes pool occupancy and lease wait times so pool sizes can be tuned under load
+    @Scheduled(fixedRateString = "${backendify.metrics.publish-interval-ms:10000}")
+    public void publishPoolStats() {
+        publishPoolStats(defaultPool);
+        poolsByCountry.values().forEach(this::publishPoolStats);
+    }
+
+    private void publishPoolStats(BackendPool pool) {
+        PoolStats stats = pool.getPoolStats();
+        TimedConnectionManager.WaitStats waits = pool.drainWaitStats();
+        metricsService.recordPoolStats(pool.getCountry(), stats.getLeased(), stats.getPending(), stats.getAvailable(),
+                stats.getMax(), waits.getAvgWaitMillis(), waits.getMaxWaitMillis());
+        metricsService.recordBackendTimeout(pool.getCountry(), pool.getTimeoutMillis());
+    }
+
+    @Override
+    public void destroy() {
+        poolsByCountry.values().forEach(BackendPool::close);
+        defaultPool.close();
+        abortScheduler.shutdownNow();
+    }
+
+    private static String originOf(URI uri) {
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getScheme() + "://" + uri.getHost() + ":" + port;
+    }
+}
@@ -0,0 +1,301 @@
+package com.backendify.proxy.client;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.deadline.DeadlineContextHolder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keep-alive connection pool and HTTP client dedicated to one country backend.
+ */
+public class BackendPool implements Closeable {
+
+    private final String country;
+    private final String origin;
+    private final BackendPoolProperties.Settings settings;
+    private final LongSupplier learnedTimeout;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final TimedConnectionManager timedConnectionManager;
+    private final CloseableHttpClient httpClient;
+    private final ClientHttpRequestFactory requestFactory;
+
+    BackendPool(String country, String origin, BackendPoolProperties.Settings settings, LongSupplier learnedTimeout,
+                ScheduledExecutorService abortScheduler) {
+        this.country = country;
+        this.origin = origin;
+        this.settings = settings;
+        this.learnedTimeout = learnedTimeout;
+
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(settings.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.getMaxConnections());
+        // Re-check connections the backend may have dropped while they sat idle in the pool
+        connectionManager.setValidateAfterInactivity(1000);
+        this.timedConnectionManager = new TimedConnectionManager(connectionManager);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) settings.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) settings.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) settings.getPoolWaitTimeout().toMillis())
+                .build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(timedConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(settings.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .disableCookieManagement()
+                .build();
+
+        this.requestFactory = new DeadlineAwareRequestFactory(httpClient, requestConfig, abortScheduler, this::getTimeoutMillis);
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public BackendPoolProperties.Settings getSettings() {
+        return settings;
+    }
+
+    // Total timeout of a call, learned from the backend's latencies but never above the configured one
+    public long getTimeoutMillis() {
+        long total = settings.getTotalTimeout().toMillis();
+        long learned = learnedTimeout.getAsLong();
+        return learned > 0 ? Math.min(total, learned) : total;
+    }
+
+    public ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    // Opens up to the given number of keep-alive connections and leaves them idle in the pool. Returns how many opened.
+    public int warmUp(int connections) {
+        HttpRoute route = new HttpRoute(HttpHost.create(origin));
+        int target = Math.min(connections, settings.getMaxConnections());
+        List<HttpClientConnection> opened = new ArrayList<>();
+        try {
+            // All are held until the end, otherwise the pool would hand back the same connection every time
+            for (int i = 0; i < target; i++) {
+                HttpClientConnection connection = connectionManager.requestConnection(route, null)
+                        .get(settings.getPoolWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                opened.add(connection);
+                if (!connection.isOpen()) {
+                    connectionManager.connect(connection, route, (int) settings.getConnectTimeout().toMillis(), HttpClientContext.create());
+                    connectionManager.routeComplete(connection, route, HttpClientContext.create());
+                }
+            }
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // The backend may not be up yet, requests will connect on demand
+        }
+        int open = 0;
+        for (HttpClientConnection connection : opened) {
+            if (connection.isOpen()) {
+                open++;
+            }
+            connectionManager.releaseConnection(connection, null, settings.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return open;
+    }
+
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    TimedConnectionManager.WaitStats drainWaitStats() {
+        return timedConnectionManager.drainWaitStats();
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();  // Also shuts down the connection manager and the idle evictor
+        } catch (IOException ignored) {
+            // Nothing useful to do with a failure while closing sockets
+        }
+    }
+
+    // Caps every timeout by the backend's current timeout and by the remaining SLA budget of the
+    // request being served, and aborts any request still running once either has elapsed. The
+    // timeout covers the time spent waiting for a connection, connecting and reading the body.
+    private static class DeadlineAwareRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        private final ScheduledExecutorService abortScheduler;
+        private final RequestConfig requestConfig;
+        private final LongSupplier timeoutMillis;
+        // Hands the abort scheduled by postProcessHttpRequest over to createRequest, on the same thread
+        private final ThreadLocal<ScheduledFuture<?>> scheduledAbort = new ThreadLocal<>();
+
+        DeadlineAwareRequestFactory(CloseableHttpClient httpClient, RequestConfig requestConfig,
+                                    ScheduledExecutorService abortScheduler, LongSupplier timeoutMillis) {
+            super(httpClient);
+            this.requestConfig = requestConfig;
+            this.abortScheduler = abortScheduler;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        protected void postProcessHttpRequest(HttpUriRequest request) {
+            long abortAfter = timeoutMillis.getAsLong();
+            Deadline deadline = DeadlineContextHolder.get();
+            if (deadline != null) {
+                abortAfter = Math.min(abortAfter, deadline.remainingMillis());
+            }
+            scheduledAbort.set(abortScheduler.schedule(request::abort, abortAfter, TimeUnit.MILLISECONDS));
+            BackendCallHandle handle = BackendCallHandle.current();
+            if (handle != null) {
+                handle.register(request);
+            }
+        }
+
+        // Cancels the abort once the response is closed, so a completed request is not held on to until its timeout
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            try {
+                ClientHttpRequest request = super.createRequest(uri, httpMethod);
+                ScheduledFuture<?> abort = scheduledAbort.get();
+                return abort == null ? request : new AbortCancellingRequest(request, abort);
+            } finally {
+                scheduledAbort.remove();
+            }
+        }
+
+        @Override
+        protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+            long timeout = timeoutMillis.getAsLong();
+            Deadline deadline = DeadlineContextHolder.get();
+            if (deadline != null) {
+                timeout = Math.min(timeout, deadline.remainingMillis());
+            }
+            // A zero timeout means "wait forever" to HttpClient, so never go below 1 ms
+            int cap = (int) Math.max(1, timeout);
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.copy(requestConfig)
+                    .setConnectTimeout(Math.min(requestConfig.getConnectTimeout(), cap))
+                    .setSocketTimeout(Math.min(requestConfig.getSocketTimeout(), cap))
+                    .setConnectionRequestTimeout(Math.min(requestConfig.getConnectionRequestTimeout(), cap))
+                    .build());
+            return context;
+        }
+    }
+
+    // Cancels the scheduled abort of the request once it failed or its response is closed
+    private static final class AbortCancellingRequest implements ClientHttpRequest {
+
+        private final ClientHttpRequest request;
+        private final ScheduledFuture<?> abort;
+
+        AbortCancellingRequest(ClientHttpRequest request, ScheduledFuture<?> abort) {
+            this.request = request;
+            this.abort = abort;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            try {
+                return new AbortCancellingResponse(request.execute(), abort);
+            } catch (IOException | RuntimeException e) {
+                abort.cancel(false);
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public String getMethodValue() {
+            return request.getMethodValue();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+    }
+
+    private static final class AbortCancellingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final ScheduledFuture<?> abort;
+
+        AbortCancellingResponse(ClientHttpResponse response, ScheduledFuture<?> abort) {
+            this.response = response;
+            this.abort = abort;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            abort.cancel(false);
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.backendify.proxy.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pool settings for the backend HTTP clients.
+ * <p>
+ * Every country gets its own pool. Countries without an entry under
+ * {@code backendify.pool.countries.<iso>} use {@code backendify.pool.defaults}, e.g.
+ * {@code --backendify.pool.countries.ru.max-connections=16}.
+ */
+@ConfigurationProperties(prefix = "backendify.pool")
+public class BackendPoolProperties {
+
+    private Settings defaults = new Settings();
+    private Map<String, Settings> countries = new HashMap<>();
+
+    public Settings settingsFor(String countryCode) {
+        return countries.getOrDefault(countryCode, defaults);
+    }
+
+    public Settings getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Settings defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Settings> getCountries() {
+        return countries;
+    }
+
+    public void setCountries(Map<String, Settings> countries) {
+        this.countries = countries;
+    }
+
+    public static class Settings {
+
+        private int maxConnections = 64;
+        private Duration idleEviction = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofMillis(250);
+        private Duration readTimeout = Duration.ofMillis(800);
+        private Duration totalTimeout = Duration.ofMillis(900);
+        private Duration poolWaitTimeout = Duration.ofMillis(100);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getIdleEviction() {
+            return idleEviction;
+        }
+
+        public void setIdleEviction(Duration idleEviction) {
+            this.idleEviction = idleEviction;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getTotalTimeout() {
+            return totalTimeout;
+        }
+
+        public void setTotalTimeout(Duration totalTimeout) {
+            this.totalTimeout = totalTimeout;
+        }
+
+        public Duration getPoolWaitTimeout() {
+            return poolWaitTimeout;
+        }
+
+        public void setPoolWaitTimeout(Duration poolWaitTimeout) {
+            this.poolWaitTimeout = poolWaitTimeout;
+        }
+    }
+}
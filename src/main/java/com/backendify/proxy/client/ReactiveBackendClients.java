@@ -0,0 +1,61 @@
+package com.backendify.proxy.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Non-blocking counterpart of {@link BackendConnectionPools}: a WebClient per country backend,
+ * each with a connection pool of its own sized and timed by {@code backendify.pool.countries.<iso>}.
+ * <p>
+ * A slow backend can only use up its own connections and its own queue of pending acquires. Clients
+ * are created on the first call to their country.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBackendClients implements DisposableBean {
+
+    private final BackendPoolProperties properties;
+    private final Map<String, WebClient> clientsByCountry = new ConcurrentHashMap<>();
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public ReactiveBackendClients(BackendPoolProperties properties) {
+        this.properties = properties;
+    }
+
+    public WebClient clientFor(String countryCode) {
+        return clientsByCountry.computeIfAbsent(countryCode, country -> newClient(country, properties.settingsFor(country)));
+    }
+
+    protected WebClient newClient(String countryCode, BackendPoolProperties.Settings settings) {
+        ConnectionProvider connections = ConnectionProvider.builder("backend-" + countryCode)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireTimeout(settings.getPoolWaitTimeout())
+                .maxIdleTime(settings.getIdleEviction())
+                .build();
+        connectionProviders.add(connections);
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .responseTimeout(settings.getReadTimeout());
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+}
@@ -1,25 +1,86 @@
 package com.backendify.proxy.config;
 
+import com.backendify.proxy.cache.DiskCompanyCache;
+import com.backendify.proxy.cache.OffHeapCompanyCache;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import com.backendify.proxy.service.CoarseClock;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CompanyCacheProperties.class)
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(CompanyCacheProperties properties, DiskCompanyCache diskCache) {
+        long lifetimeMillis = properties.getHardTtl().plus(properties.getStaleGrace()).toMillis();
+
+        // Negative cache for companies the backend does not know, short-lived and bounded
+        // so a client scanning nonexistent ids cannot fill the heap
+        Cache<Object, Object> notFoundCache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getNotFoundTtl())
+                .maximumSize(properties.getNotFoundMaxSize())
+                .build();
+
+        if (properties.getStore() == CompanyCacheProperties.Store.OFF_HEAP) {
+            // Nothing for the GC to trace however many entries there are, at the cost of decoding every hit
+            SimpleCacheManager cacheManager = new SimpleCacheManager();
+            cacheManager.setCaches(List.of(
+                    OffHeapCompanyCache.withBudget("companyCache", properties.getOffHeapBudget().toBytes(),
+                            Math.toIntExact(properties.getOffHeapSegmentSize().toBytes()), lifetimeMillis, CoarseClock::currentTimeMillis),
+                    new CaffeineCache("companyNotFoundCache", notFoundCache)));
+            cacheManager.initializeCaches();
+            return cacheManager;
+        }
+
+        // Keep entries past their hard TTL for the grace window, so they can still be served when the backend fails.
+        // Bound the cache by the estimated bytes of its entries so it never grows into GC thrashing or an OOM.
         Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
-                .expireAfterWrite(24, TimeUnit.HOURS);  // Cache duration of 24 hours
+                .expireAfter(new CompanyCacheExpiry(Duration.ofMillis(lifetimeMillis), CoarseClock::currentTimeMillis))
+                .maximumWeight(properties.maximumWeightBytes())
+                .weigher(new CompanyCacheWeigher())
+                .recordStats();
+        if (diskCache.isEnabled()) {
+            // Entries pushed out for lack of room move to the disk tier, expired or replaced ones do not
+            caffeine.removalListener((key, value, cause) -> {
+                if (cause == RemovalCause.SIZE && key instanceof CompanyKey && value instanceof CachedCompany) {
+                    diskCache.spill((CompanyKey) key, (CachedCompany) value);
+                }
+            });
+        }
 
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("companyCache");
         cacheManager.setCaffeine(caffeine);
+        cacheManager.registerCustomCache("companyNotFoundCache", notFoundCache);
         return cacheManager;
     }
+
+    @Bean
+    public TaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        // A dropped refresh is retried by the next request that reads the stale entry
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        return executor;
+    }
 }
@@ -0,0 +1,42 @@
+package com.backendify.proxy.config;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Expires companyCache entries a fixed time after the backend answered, rather than after they were
+ * put in the cache, so entries restored from a snapshot keep the age they had when it was taken.
+ */
+public class CompanyCacheExpiry implements Expiry<Object, Object> {
+
+    private final long lifetimeMillis;
+    private final LongSupplier clock;
+
+    public CompanyCacheExpiry(Duration lifetime, LongSupplier clock) {
+        this.lifetimeMillis = lifetime.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        long remaining = lifetimeMillis;
+        if (value instanceof CachedCompany) {
+            remaining -= ((CachedCompany) value).getAgeMillis(clock.getAsLong());
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;  // Reads do not extend an entry's life
+    }
+}
@@ -0,0 +1,122 @@
+package com.backendify.proxy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Freshness windows of companyCache entries, measured from the time the backend answered.
+ * <ul>
+ *     <li>younger than {@code soft-ttl}: served as is</li>
+ *     <li>between {@code soft-ttl} and {@code hard-ttl}: served while a background refresh runs</li>
+ *     <li>between {@code hard-ttl} and {@code hard-ttl + stale-grace}: fetched again, but still served
+ *     if the backend fails or times out</li>
+ * </ul>
+ * The cache is bounded by the estimated size of its entries, up to {@code heap-fraction} of the max heap.
+ * With {@code store} set to {@code off-heap}, entries are kept in direct memory instead, within
+ * {@code off-heap-budget} for records and index together, in segments of {@code off-heap-segment-size}.
+ * Companies the backend does not know are remembered in a separate, smaller cache for {@code not-found-ttl}.
+ * With {@code snapshot-path} set, companyCache is saved to that file every
+ * {@code snapshot-interval-ms} and on shutdown, and restored from it on startup.
+ */
+@ConfigurationProperties(prefix = "backendify.cache")
+public class CompanyCacheProperties {
+
+    public enum Store { HEAP, OFF_HEAP }
+
+    private Duration softTtl = Duration.ofHours(20);
+    private Duration hardTtl = Duration.ofHours(24);  // Backend replies may be cached for 24 hours
+    private Duration staleGrace = Duration.ofHours(1);
+    private double heapFraction = 0.4;
+    private Store store = Store.HEAP;
+    private DataSize offHeapBudget = DataSize.ofMegabytes(64);
+    private DataSize offHeapSegmentSize = DataSize.ofMegabytes(1);  // Evicted as one, under the write lock
+    private Duration notFoundTtl = Duration.ofMinutes(5);
+    private long notFoundMaxSize = 100_000;
+    private String snapshotPath;  // No snapshots unless set
+
+    public Duration getSoftTtl() {
+        return softTtl;
+    }
+
+    public void setSoftTtl(Duration softTtl) {
+        this.softTtl = softTtl;
+    }
+
+    public Duration getHardTtl() {
+        return hardTtl;
+    }
+
+    public void setHardTtl(Duration hardTtl) {
+        this.hardTtl = hardTtl;
+    }
+
+    public Duration getStaleGrace() {
+        return staleGrace;
+    }
+
+    public void setStaleGrace(Duration staleGrace) {
+        this.staleGrace = staleGrace;
+    }
+
+    public double getHeapFraction() {
+        return heapFraction;
+    }
+
+    public void setHeapFraction(double heapFraction) {
+        this.heapFraction = heapFraction;
+    }
+
+    public long maximumWeightBytes() {
+        return (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(Store store) {
+        this.store = store;
+    }
+
+    public DataSize getOffHeapBudget() {
+        return offHeapBudget;
+    }
+
+    public void setOffHeapBudget(DataSize offHeapBudget) {
+        this.offHeapBudget = offHeapBudget;
+    }
+
+    public DataSize getOffHeapSegmentSize() {
+        return offHeapSegmentSize;
+    }
+
+    public void setOffHeapSegmentSize(DataSize offHeapSegmentSize) {
+        this.offHeapSegmentSize = offHeapSegmentSize;
+    }
+
+    public Duration getNotFoundTtl() {
+        return notFoundTtl;
+    }
+
+    public void setNotFoundTtl(Duration notFoundTtl) {
+        this.notFoundTtl = notFoundTtl;
+    }
+
+    public long getNotFoundMaxSize() {
+        return notFoundMaxSize;
+    }
+
+    public void setNotFoundMaxSize(long notFoundMaxSize) {
+        this.notFoundMaxSize = notFoundMaxSize;
+    }
+
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public void setSnapshotPath(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+}
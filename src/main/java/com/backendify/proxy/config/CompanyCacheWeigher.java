@@ -0,0 +1,58 @@
+package com.backendify.proxy.config;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Estimates the heap bytes retained by a companyCache entry, key included.
+ * <p>
+ * Sizes assume a 64-bit JVM with compressed oops and compact (Latin-1) strings. They only need to
+ * be close enough to keep the cache within its heap budget, not exact.
+ */
+public class CompanyCacheWeigher implements Weigher<Object, Object> {
+
+    // Caffeine node with its write timestamp, plus the slot in the backing hash table
+    static final int ENTRY_OVERHEAD = 80;
+    static final int OBJECT_HEADER = 12;
+    static final int REFERENCE = 4;
+    static final int ARRAY_HEADER = 16;
+    // Anything we cannot size is assumed to be a small object
+    static final int UNKNOWN_OBJECT = 64;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return ENTRY_OVERHEAD + sizeOf(key) + sizeOf(value);
+    }
+
+    static int sizeOf(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        if (object instanceof String) {
+            return sizeOf((String) object);
+        }
+        if (object instanceof CompanyKey) {
+            CompanyKey key = (CompanyKey) object;
+            return align(OBJECT_HEADER + Short.BYTES + REFERENCE + Integer.BYTES) + sizeOf(key.getId());
+        }
+        if (object instanceof CachedCompany) {
+            CachedCompany cached = (CachedCompany) object;
+            byte[] name = cached.getNameBytes();
+            return align(OBJECT_HEADER + REFERENCE + 2 * Long.BYTES) + (name == null ? 0 : align(ARRAY_HEADER + name.length));
+        }
+        return UNKNOWN_OBJECT;
+    }
+
+    static int sizeOf(String value) {
+        if (value == null) {
+            return 0;
+        }
+        // String object (hash, coder, value) plus its byte[]
+        return align(OBJECT_HEADER + REFERENCE + Integer.BYTES + 1) + align(ARRAY_HEADER + value.length());
+    }
+
+    static int align(int size) {
+        return (size + 7) & ~7;
+    }
+}
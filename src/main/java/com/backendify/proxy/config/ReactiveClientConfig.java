@@ -0,0 +1,24 @@
+package com.backendify.proxy.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans of the reactive stack, started with --spring.main.web-application-type=reactive.
+ * <p>
+ * Requests are served by Netty's event loops and the backends are called through the non-blocking
+ * WebClients of {@link com.backendify.proxy.client.ReactiveBackendClients}, so no thread waits for a
+ * backend.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveClientConfig {
+
+    // Tomcat is on the classpath for the servlet stack and would otherwise serve this one too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
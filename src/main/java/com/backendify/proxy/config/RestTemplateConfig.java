@@ -1,14 +1,43 @@
 package com.backendify.proxy.config;
 
+import com.backendify.proxy.client.BackendConnectionPools;
+import com.backendify.proxy.client.BackendPoolProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties(BackendPoolProperties.class)
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(BackendConnectionPools backendConnectionPools) {
+        // Every backend call goes through the pooled, keep-alive client of its country
+        return new RestTemplate(backendConnectionPools);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public TaskExecutor hedgeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("backend-hedge-");
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(64);
+        // No queue, a hedge that cannot start right away is not worth sending
+        executor.setQueueCapacity(0);
+        return executor;
+    }
+
+    @Bean
+    public TaskExecutor batchLookupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("batch-lookup-");
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(64);
+        // No queue, a batch that finds every thread busy answers the companies of that backend with a 503
+        executor.setQueueCapacity(0);
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.backendify.proxy.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves requests on virtual threads when started with --backendify.threads.mode=virtual.
+ * <p>
+ * Each request, including its blocking backend calls, then runs on a virtual thread of its own
+ * instead of one of Tomcat's 200 platform threads. Requests waiting on slow backends are no
+ * longer bounded by the pool size or by the memory reserved for platform thread stacks, only by
+ * server.tomcat.max-connections. Needs Java 21 or later, the application fails to start otherwise.
+ * <p>
+ * Experimental: the mode is not supported until its concurrency and memory use within 128 MB
+ * have been measured against the platform thread pool, see the README.
+ */
+@Configuration
+@ConditionalOnProperty(name = "backendify.threads.mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-vt-"));
+    }
+}
@@ -0,0 +1,26 @@
+package com.backendify.proxy.controller;
+
+import com.backendify.proxy.client.BackendConnectionPools;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class BackendTimeoutController {
+
+    private final BackendConnectionPools backendConnectionPools;
+
+    @Autowired
+    public BackendTimeoutController(BackendConnectionPools backendConnectionPools) {
+        this.backendConnectionPools = backendConnectionPools;
+    }
+
+    // Timeout in milliseconds currently applied to the calls of each country backend
+    @GetMapping("/backend-timeouts")
+    public ResponseEntity<Map<String, Long>> getBackendTimeouts() {
+        return ResponseEntity.ok(backendConnectionPools.currentTimeouts());
+    }
+}
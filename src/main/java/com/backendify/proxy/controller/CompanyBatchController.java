@@ -0,0 +1,104 @@
+package com.backendify.proxy.controller;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyJson;
+import com.backendify.proxy.model.CompanyRef;
+import com.backendify.proxy.service.CoarseClock;
+import com.backendify.proxy.service.CompanyBatchLookup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Looks up a JSON array of {@code {"id": ..., "country_iso": ...}} companies in one request.
+ * <p>
+ * The reply is streamed as newline-delimited JSON, one line per company in completion order:
+ * <pre>
+ * {"index":0,"status":200,"company":{"id":"123","name":"Backendify Ltd","active":true}}
+ * {"index":1,"status":404,"error":"Company not found"}
+ * </pre>
+ * {@code index} is the position of the company in the request, {@code status} is what
+ * {@code /company} would have answered for it.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompanyBatchController {
+
+    private static final MediaType NDJSON = MediaType.valueOf("application/x-ndjson");
+    private static final byte[] INDEX = bytes("{\"index\":");
+    private static final byte[] STATUS = bytes(",\"status\":");
+    private static final byte[] COMPANY = bytes(",\"company\":");
+    private static final byte[] ERROR = bytes(",\"error\":\"");
+    private static final byte[] END = bytes("}\n");
+    private static final byte[] END_WITH_ERROR = bytes("\"}\n");
+
+    private final CompanyBatchLookup batchLookup;
+
+    @Autowired
+    public CompanyBatchController(CompanyBatchLookup batchLookup) {
+        this.batchLookup = batchLookup;
+    }
+
+    @PostMapping("/companies")
+    public ResponseEntity<StreamingResponseBody> getCompanies(@RequestBody List<CompanyRef> companies) {
+        if (companies.size() > batchLookup.getMaxItems()) {
+            byte[] message = bytes("At most " + batchLookup.getMaxItems() + " companies per batch");
+            return ResponseEntity.status(413).contentType(MediaType.TEXT_PLAIN).body(out -> out.write(message));  // 413 Payload Too Large
+        }
+        // The budget starts now, not when the body starts streaming
+        Deadline deadline = batchLookup.newDeadline();
+        StreamingResponseBody body = out -> batchLookup.lookup(companies, deadline, new CompanyBatchLookup.ResultWriter() {
+            @Override
+            public void write(int index, CompanyRef ref, CachedCompany company, Throwable error) throws IOException {
+                writeLine(out, index, ref, company, error);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    static void writeLine(OutputStream out, int index, CompanyRef ref, CachedCompany company, Throwable error) throws IOException {
+        out.write(INDEX);
+        out.write(bytes(Integer.toString(index)));
+        out.write(STATUS);
+        out.write(bytes(Integer.toString(company != null ? 200 : statusOf(error))));
+        if (company != null) {
+            out.write(COMPANY);
+            out.write(CompanyJson.toJson(ref.getId(), company, CoarseClock.currentTimeMillis()));
+            out.write(END);
+        } else if (error.getMessage() != null) {
+            out.write(ERROR);
+            out.write(CompanyJson.escape(error.getMessage()));
+            out.write(END_WITH_ERROR);
+        } else {
+            out.write(END);
+        }
+    }
+
+    // Same status codes as /company, plus 400 for an item missing its id or country
+    static int statusOf(Throwable error) {
+        if (error instanceof IllegalArgumentException) {
+            return 400;  // 400 Bad Request
+        }
+        return CompanyErrorResponses.statusOf(error);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
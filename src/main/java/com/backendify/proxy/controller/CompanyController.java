@@ -1,15 +1,20 @@
 package com.backendify.proxy.controller;
 
 import com.backendify.proxy.exception.*;
-import com.backendify.proxy.model.CompanyResponse;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyJson;
+import com.backendify.proxy.service.CoarseClock;
 import com.backendify.proxy.service.CompanyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CompanyController {
 
     private final CompanyService companyService;
@@ -22,12 +27,21 @@ public class CompanyController {
     @GetMapping ("/company")
     public ResponseEntity<?> getCompany(@RequestParam String id, @RequestParam String country_iso) {
         try {
-            CompanyResponse companyResponse = companyService.getCompany(id, country_iso);
-            return ResponseEntity.ok(companyResponse);
+            // Write the body straight from the cache entry, so "active" reflects the current time without going through Jackson
+            CachedCompany company = companyService.lookupCompany(id, country_iso);
+            byte[] body = CompanyJson.toJson(id, company, CoarseClock.currentTimeMillis());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(body.length)
+                    .body(body);
         } catch (CompanyNotFoundException | CountryNotFoundException e) {
             return ResponseEntity.status(404).body(e.getMessage());  // 404 Not Found
+        } catch (BackendUnavailableException e) {
+            return ResponseEntity.status(503).body(e.getMessage()); // 503 Service Unavailable, backend circuit open or saturated
         } catch (BackendServerException e) {
             return ResponseEntity.status(500).body(e.getMessage()); // 500 Internal Server Error
+        } catch (DeadlineExceededException e) {
+            return ResponseEntity.status(504).body(e.getMessage());  // 504 Gateway Timeout, SLA budget exhausted
         } catch (ConnectivityTimeoutException e) {
             return ResponseEntity.status(504).body(e.getMessage());  // 504 Gateway Timeout
         } catch (UnexpectedContentTypeException e) {
@@ -0,0 +1,41 @@
+package com.backendify.proxy.controller;
+
+import com.backendify.proxy.exception.*;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Maps lookup failures to the replies of {@code /company}, for the controllers that receive them
+ * as values instead of catching them.
+ */
+final class CompanyErrorResponses {
+
+    private CompanyErrorResponses() {
+    }
+
+    // Same mapping as the catch blocks of CompanyController
+    static ResponseEntity<?> toErrorResponse(Throwable e) {
+        return ResponseEntity.status(statusOf(e)).body(e.getMessage());
+    }
+
+    static int statusOf(Throwable e) {
+        if (e instanceof CompanyNotFoundException || e instanceof CountryNotFoundException) {
+            return 404;  // 404 Not Found
+        }
+        if (e instanceof BackendUnavailableException) {
+            return 503; // 503 Service Unavailable, backend circuit open or saturated
+        }
+        if (e instanceof BackendServerException) {
+            return 500; // 500 Internal Server Error
+        }
+        if (e instanceof ConnectivityTimeoutException) {
+            return 504;  // 504 Gateway Timeout, including an exhausted SLA budget
+        }
+        if (e instanceof UnexpectedContentTypeException) {
+            return 415;  // 415 Unsupported Media Type
+        }
+        if (e instanceof BackendResponseFormatException) {
+            return 502;  // 502 Bad Gateway
+        }
+        return 500;  // 500 Internal Server Error for unexpected errors
+    }
+}
@@ -0,0 +1,48 @@
+package com.backendify.proxy.controller;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.model.CompanyJson;
+import com.backendify.proxy.service.CoarseClock;
+import com.backendify.proxy.service.ReactiveCompanyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Serves /company on the reactive stack, with the same replies and status codes as {@link CompanyController}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCompanyController {
+
+    private final ReactiveCompanyService companyService;
+    private final Duration slaBudget;
+
+    // There is no servlet filter on this stack, the SLA budget starts when the request is mapped
+    @Autowired
+    public ReactiveCompanyController(ReactiveCompanyService companyService, @Value("${backendify.sla.budget-ms:900}") long slaBudgetMillis) {
+        this.companyService = companyService;
+        this.slaBudget = Duration.ofMillis(slaBudgetMillis);
+    }
+
+    @GetMapping ("/company")
+    public Mono<ResponseEntity<?>> getCompany(@RequestParam String id, @RequestParam String country_iso) {
+        return companyService.lookupCompany(id, country_iso, Deadline.after(slaBudget))
+                .<ResponseEntity<?>>map(company -> {
+                    byte[] body = CompanyJson.toJson(id, company, CoarseClock.currentTimeMillis());
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .contentLength(body.length)
+                            .body(body);
+                })
+                .onErrorResume(e -> Mono.just(CompanyErrorResponses.toErrorResponse(e)));
+    }
+}
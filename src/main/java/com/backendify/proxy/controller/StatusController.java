@@ -1,5 +1,8 @@
 package com.backendify.proxy.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
@@ -7,9 +10,20 @@ import org.springframework.http.ResponseEntity;
 @RestController  // Marks this class as a REST controller
 public class StatusController {
 
+    private final ApplicationAvailability availability;
+
+    @Autowired
+    public StatusController(ApplicationAvailability availability) {
+        this.availability = availability;
+    }
+
     @GetMapping("/status")  // Maps HTTP GET requests to /status
     public ResponseEntity<String> getStatus() {
+        // Spring reports ready once the startup runners are done, e.g. restoring the cache snapshot
+        if (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return ResponseEntity.status(503).body("Service is starting");
+        }
         // Returns a 200 OK response with the message "Service is running"
         return ResponseEntity.ok("Service is running");
     }
-}
\ No newline at end of file
+}
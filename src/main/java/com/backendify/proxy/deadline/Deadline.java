@@ -0,0 +1,34 @@
+package com.backendify.proxy.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of a single customer request, measured from the moment the request arrived.
+ */
+public final class Deadline {
+
+    private final long budgetMillis;
+    private final long deadlineNanos;
+
+    private Deadline(long budgetMillis, long deadlineNanos) {
+        this.budgetMillis = budgetMillis;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(budget.toMillis(), System.nanoTime() + budget.toNanos());
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.backendify.proxy.deadline;
+
+/**
+ * Binds the deadline of the request being processed to the current thread,
+ * so the backend client can turn the remaining budget into its timeouts.
+ */
+public final class DeadlineContextHolder {
+
+    private static final ThreadLocal<Deadline> DEADLINE = new ThreadLocal<>();
+
+    private DeadlineContextHolder() {
+    }
+
+    // Returns null when the current thread is not serving a customer request
+    public static Deadline get() {
+        return DEADLINE.get();
+    }
+
+    public static void set(Deadline deadline) {
+        DEADLINE.set(deadline);
+    }
+
+    public static void reset() {
+        DEADLINE.remove();
+    }
+}
@@ -0,0 +1,42 @@
+package com.backendify.proxy.deadline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Starts the SLA budget of every request as early as possible in the filter chain.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final Duration slaBudget;
+
+    // Customers give up after 1 second, leave some room to write the response
+    public DeadlineFilter(@Value("${backendify.sla.budget-ms:900}") long slaBudgetMillis) {
+        this.slaBudget = Duration.ofMillis(slaBudgetMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DeadlineContextHolder.set(Deadline.after(slaBudget));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DeadlineContextHolder.reset();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.backendify.proxy.exception;
+
+// Raised when the backend asks us to slow down (429, or 503 with Retry-After)
+public class BackendThrottledException extends BackendUnavailableException {
+
+    private final long retryAfterMillis;
+
+    public BackendThrottledException(String msg, long retryAfterMillis) {
+        super(msg);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    // Returns -1 when the backend did not say when to come back
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,9 @@
+package com.backendify.proxy.exception;
+
+// Raised without calling the backend when it is known to be failing, reported to the customer as 503
+public class BackendUnavailableException extends BackendServerException {
+
+    public BackendUnavailableException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,15 @@
+package com.backendify.proxy.exception;
+
+import org.springframework.web.client.ResourceAccessException;
+
+// Raised when the SLA budget of a request runs out, reported to the customer as a gateway timeout
+public class DeadlineExceededException extends ConnectivityTimeoutException {
+
+    public DeadlineExceededException(String msg) {
+        super(msg);
+    }
+
+    public DeadlineExceededException(String msg, ResourceAccessException cause) {
+        super(msg, cause);
+    }
+}
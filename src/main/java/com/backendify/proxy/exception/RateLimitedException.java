@@ -0,0 +1,9 @@
+package com.backendify.proxy.exception;
+
+// Raised without calling the backend when we already send it as many requests as it accepts
+public class RateLimitedException extends BackendUnavailableException {
+
+    public RateLimitedException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,58 @@
+package com.backendify.proxy.model;
+
+import java.time.Instant;
+
+/**
+ * A companyCache entry in compact form: the company name as UTF-8 bytes, the closure time as
+ * epoch millis and the time the backend answered. The id lives in the {@link CompanyKey}.
+ * <p>
+ * The name is kept JSON-escaped, ready to be copied into the response body by {@link CompanyJson}.
+ */
+public class CachedCompany {
+
+    // Companies without a closed_on/dissolved_on date stay active forever
+    public static final long NO_CLOSURE = Long.MAX_VALUE;
+
+    private final byte[] name;  // JSON-escaped UTF-8
+    private final long activeUntil;  // Epoch millis
+    private final long fetchedAt;  // Epoch millis
+
+    public CachedCompany(byte[] name, long activeUntil, long fetchedAt) {
+        this.name = name;
+        this.activeUntil = activeUntil;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public static CachedCompany of(String name, long activeUntil, long fetchedAt) {
+        return new CachedCompany(name == null ? null : CompanyJson.escape(name), activeUntil, fetchedAt);
+    }
+
+    public byte[] getNameBytes() {
+        return name;
+    }
+
+    public String getName() {
+        return name == null ? null : CompanyJson.unescape(name);
+    }
+
+    public long getActiveUntil() {
+        return activeUntil;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public long getAgeMillis(long now) {
+        return now - fetchedAt;
+    }
+
+    public boolean isActive(long now) {
+        return now < activeUntil;
+    }
+
+    public CompanyResponse toResponse(String id, long now) {
+        String activeUntilText = activeUntil == NO_CLOSURE ? null : Instant.ofEpochMilli(activeUntil).toString();
+        return new CompanyResponse(id, getName(), isActive(now), activeUntilText);
+    }
+}
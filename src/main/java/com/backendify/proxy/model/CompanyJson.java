@@ -0,0 +1,127 @@
+package com.backendify.proxy.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the customer JSON body straight from a {@link CachedCompany}, without going through Jackson.
+ * <p>
+ * The output matches what Jackson produces for {@link CompanyResponse}: the same field order, and
+ * null fields left out. The company name is kept JSON-escaped in the cache entry, so only the
+ * id has to be escaped on each request.
+ */
+public final class CompanyJson {
+
+    private static final byte[] ID = bytes("{\"id\":\"");
+    private static final byte[] NAME = bytes("\",\"name\":\"");
+    private static final byte[] ACTIVE = bytes("\",\"active\":");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+    private static final byte[] ACTIVE_UNTIL = bytes(",\"activeUntil\":\"");
+    private static final byte[] END_WITH_ACTIVE_UNTIL = bytes("\"}");
+    private static final byte[] END = bytes("}");
+
+    private CompanyJson() {
+    }
+
+    public static byte[] toJson(String id, CachedCompany company, long now) {
+        byte[] idBytes = escape(id);
+        byte[] name = company.getNameBytes();
+        byte[] active = company.isActive(now) ? TRUE : FALSE;
+        byte[] activeUntil = company.getActiveUntil() == CachedCompany.NO_CLOSURE ? null
+                : Rfc3339.formatUtc(company.getActiveUntil());
+
+        int length = ID.length + idBytes.length + ACTIVE.length + active.length
+                + (name == null ? 0 : NAME.length + name.length)
+                + (activeUntil == null ? END.length : ACTIVE_UNTIL.length + activeUntil.length + END_WITH_ACTIVE_UNTIL.length);
+
+        byte[] json = new byte[length];
+        int offset = put(json, 0, ID);
+        offset = put(json, offset, idBytes);
+        if (name != null) {
+            offset = put(json, offset, NAME);
+            offset = put(json, offset, name);
+        }
+        offset = put(json, offset, ACTIVE);
+        offset = put(json, offset, active);
+        if (activeUntil != null) {
+            offset = put(json, offset, ACTIVE_UNTIL);
+            offset = put(json, offset, activeUntil);
+            put(json, offset, END_WITH_ACTIVE_UNTIL);
+        } else {
+            put(json, offset, END);
+        }
+        return json;
+    }
+
+    // Escapes a string as the UTF-8 content of a JSON string literal, without the quotes
+    public static byte[] escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = escapeOf(c);
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return (escaped == null ? value : escaped.toString()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Reverses escape()
+    public static String unescape(byte[] escaped) {
+        String value = new String(escaped, StandardCharsets.UTF_8);
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                unescaped.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            switch (next) {
+                case 'b': unescaped.append('\b'); break;
+                case 'f': unescaped.append('\f'); break;
+                case 'n': unescaped.append('\n'); break;
+                case 'r': unescaped.append('\r'); break;
+                case 't': unescaped.append('\t'); break;
+                case 'u':
+                    unescaped.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default: unescaped.append(next);  // \" \\ and \/
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private static String escapeOf(char c) {
+        switch (c) {
+            case '"': return "\\\"";
+            case '\\': return "\\\\";
+            case '\b': return "\\b";
+            case '\f': return "\\f";
+            case '\n': return "\\n";
+            case '\r': return "\\r";
+            case '\t': return "\\t";
+            default: return c < 0x20 ? String.format("\\u%04X", (int) c) : null;
+        }
+    }
+
+    private static int put(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    private static byte[] bytes(String ascii) {
+        return ascii.getBytes(StandardCharsets.US_ASCII);
+    }
+}
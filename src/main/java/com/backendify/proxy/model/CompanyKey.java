@@ -0,0 +1,45 @@
+package com.backendify.proxy.model;
+
+/**
+ * Cache key of a company: the index of its country backend and the company id.
+ * <p>
+ * Built without concatenating strings, with the hash computed once.
+ */
+public final class CompanyKey {
+
+    private final short countryIndex;
+    private final String id;
+    private final int hash;
+
+    public CompanyKey(short countryIndex, String id) {
+        this.countryIndex = countryIndex;
+        this.id = id;
+        this.hash = 31 * countryIndex + id.hashCode();
+    }
+
+    public short getCountryIndex() {
+        return countryIndex;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompanyKey)) return false;
+        CompanyKey other = (CompanyKey) o;
+        return countryIndex == other.countryIndex && hash == other.hash && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return id + "@" + countryIndex;
+    }
+}
@@ -0,0 +1,35 @@
+package com.backendify.proxy.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// One company of a batch lookup, named the way /company takes it
+public class CompanyRef {
+
+    private String id;
+    @JsonProperty("country_iso")
+    private String countryIso;
+
+    public CompanyRef() {
+    }
+
+    public CompanyRef(String id, String countryIso) {
+        this.id = id;
+        this.countryIso = countryIso;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCountryIso() {
+        return countryIso;
+    }
+
+    public void setCountryIso(String countryIso) {
+        this.countryIso = countryIso;
+    }
+}
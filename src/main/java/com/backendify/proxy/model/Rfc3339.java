@@ -0,0 +1,193 @@
+package com.backendify.proxy.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Parses and writes RFC 3339 timestamps such as {@code 2022-01-28T09:30:00.250+02:00} without java.time.
+ * <p>
+ * Parsing is strict: seconds are required, fractions have at most 9 digits and are truncated to
+ * milliseconds, the offset is {@code Z}, {@code +HH:MM} or {@code -HH:MM}, and impossible dates
+ * like February 30 are rejected. Invalid input yields {@link #INVALID} rather than an exception,
+ * and parsing reads straight from the caller's char buffer without allocating.
+ */
+public final class Rfc3339 {
+
+    // Never a valid result: the earliest RFC 3339 timestamp is in year 0
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int MIN_LENGTH = "0000-00-00T00:00:00Z".length();
+    private static final long SECONDS_PER_DAY = 86_400;
+    // Days from 0000-03-01 to 1970-01-01 in the proleptic Gregorian calendar
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final long DAYS_PER_ERA = 146_097;  // 400 years
+
+    private Rfc3339() {
+    }
+
+    // Returns the epoch millis of the timestamp in text[offset, offset + length), or INVALID
+    public static long parseEpochMillis(char[] text, int offset, int length) {
+        if (length < MIN_LENGTH) {
+            return INVALID;
+        }
+        int end = offset + length;
+        int p = offset;
+
+        int year = digits(text, p, 4);
+        int month = digits(text, p + 5, 2);
+        int day = digits(text, p + 8, 2);
+        if (year < 0 || text[p + 4] != '-' || month < 1 || month > 12 || text[p + 7] != '-'
+                || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+        char separator = text[p + 10];
+        if (separator != 'T' && separator != 't') {
+            return INVALID;
+        }
+        int hour = digits(text, p + 11, 2);
+        int minute = digits(text, p + 14, 2);
+        int second = digits(text, p + 17, 2);
+        if (hour < 0 || hour > 23 || text[p + 13] != ':' || minute < 0 || minute > 59 || text[p + 16] != ':'
+                || second < 0 || second > 59) {
+            return INVALID;  // Leap seconds are rejected, as java.time does
+        }
+        p += 19;
+
+        int millis = 0;
+        if (text[p] == '.') {
+            int start = ++p;
+            while (p < end && isDigit(text[p])) {
+                if (p - start < 3) {
+                    millis = millis * 10 + (text[p] - '0');
+                }
+                p++;
+            }
+            int fractionDigits = p - start;
+            if (fractionDigits == 0 || fractionDigits > 9) {
+                return INVALID;
+            }
+            for (int i = fractionDigits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        if (p >= end) {
+            return INVALID;
+        }
+        int offsetSeconds;
+        char zone = text[p];
+        if (zone == 'Z' || zone == 'z') {
+            offsetSeconds = 0;
+            p++;
+        } else if (zone == '+' || zone == '-') {
+            if (end - p != 6) {
+                return INVALID;
+            }
+            int offsetHours = digits(text, p + 1, 2);
+            int offsetMinutes = digits(text, p + 4, 2);
+            if (offsetHours < 0 || offsetHours > 23 || text[p + 3] != ':' || offsetMinutes < 0 || offsetMinutes > 59) {
+                return INVALID;
+            }
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (zone == '-' ? -1 : 1);
+            p += 6;
+        } else {
+            return INVALID;
+        }
+        if (p != end) {
+            return INVALID;
+        }
+
+        long seconds = daysSinceEpoch(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offsetSeconds;
+        return seconds * 1000 + millis;
+    }
+
+    // Writes the timestamp in canonical UTC form, the same text Instant.toString() produces
+    public static byte[] formatUtc(long epochMillis) {
+        long epochSeconds = Math.floorDiv(epochMillis, 1000);
+        int millis = (int) Math.floorMod(epochMillis, 1000);
+        long days = Math.floorDiv(epochSeconds, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSeconds, SECONDS_PER_DAY);
+
+        // Days to civil date, see daysSinceEpoch()
+        long shifted = days + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        int dayOfEra = (int) (shifted - era * DAYS_PER_ERA);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = era * 400 + yearOfEra + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            // Instant.toString() signs and widens years outside 0000-9999
+            return Instant.ofEpochMilli(epochMillis).toString().getBytes(StandardCharsets.US_ASCII);
+        }
+
+        byte[] text = new byte[millis == 0 ? MIN_LENGTH : MIN_LENGTH + 4];
+        putDigits(text, 0, (int) year, 4);
+        text[4] = '-';
+        putDigits(text, 5, month, 2);
+        text[7] = '-';
+        putDigits(text, 8, day, 2);
+        text[10] = 'T';
+        putDigits(text, 11, secondOfDay / 3600, 2);
+        text[13] = ':';
+        putDigits(text, 14, secondOfDay / 60 % 60, 2);
+        text[16] = ':';
+        putDigits(text, 17, secondOfDay % 60, 2);
+        int p = 19;
+        if (millis != 0) {
+            text[p] = '.';
+            putDigits(text, p + 1, millis, 3);
+            p += 4;
+        }
+        text[p] = 'Z';
+        return text;
+    }
+
+    // Days from 1970-01-01, counting years from March so the leap day ends the year
+    static long daysSinceEpoch(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        int yearOfEra = (int) (y - era * 400);
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Returns the value of count ASCII digits, or -1 when one of them is not a digit
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text[i];
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void putDigits(byte[] target, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
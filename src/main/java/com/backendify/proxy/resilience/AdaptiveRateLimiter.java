@@ -0,0 +1,142 @@
+package com.backendify.proxy.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket whose rate follows the backend's throttling: halved when the backend answers
+ * 429, grown back step by step while it does not.
+ * <p>
+ * Without a fixed maximum rate, calls go through unlimited until the backend first throttles. The
+ * bucket then starts from the request rate measured just before, and steps aside again once its
+ * rate has grown back there. A caller that has to wait reserves its token up front, so callers are
+ * let through in order. While the backend's Retry-After is pending no tokens are earned.
+ */
+public class AdaptiveRateLimiter {
+
+    private final String name;
+    private final RateLimitProperties properties;
+    private final LongSupplier clock;
+
+    private boolean limiting;
+    private double ceiling;
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+    private long adjustedAt;
+
+    // Requests seen while not limiting, to know where to start from
+    private long windowStart;
+    private int windowCalls;
+    private double lastWindowRate;
+
+    public AdaptiveRateLimiter(String name, RateLimitProperties properties, LongSupplier clock) {
+        this.name = name;
+        this.properties = properties;
+        this.clock = clock;
+        this.limiting = properties.getMaxRate() > 0;
+        this.ceiling = properties.getMaxRate();
+        this.rate = properties.getMaxRate();
+        this.tokens = capacity();
+        this.refilledAt = clock.getAsLong();
+        this.adjustedAt = refilledAt - properties.getAdjustInterval().toMillis();
+        this.windowStart = refilledAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized boolean isLimiting() {
+        return limiting;
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    // Returns how long the caller must wait before calling the backend, or -1 when it must not call it
+    public synchronized long reserve(long maxWaitMillis) {
+        long now = clock.getAsLong();
+        if (!limiting) {
+            countCall(now);
+            return 0;
+        }
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long wait = Math.max(0, refilledAt - now) + (long) Math.ceil((1 - tokens) * 1000 / rate);
+        if (wait > maxWaitMillis) {
+            return -1;
+        }
+        tokens -= 1;
+        return wait;
+    }
+
+    public synchronized void onSuccess() {
+        long now = clock.getAsLong();
+        if (!limiting || rate >= ceiling || now - adjustedAt < properties.getAdjustInterval().toMillis()) {
+            return;
+        }
+        refill(now);
+        rate = Math.min(ceiling, rate + properties.getAdditiveIncrease());
+        adjustedAt = now;
+        if (rate >= ceiling && properties.getMaxRate() <= 0) {
+            limiting = false;  // Back where the backend throttled, the next throttle tells where its limit is now
+            windowStart = now;
+            windowCalls = 0;
+            lastWindowRate = 0;
+        }
+    }
+
+    public synchronized void onThrottled(long retryAfterMillis) {
+        long now = clock.getAsLong();
+        if (!limiting) {
+            ceiling = Math.max(properties.getMinRate(), demandRate(now));
+            rate = ceiling;
+            tokens = 0;
+            refilledAt = now;
+            adjustedAt = now - properties.getAdjustInterval().toMillis();
+            limiting = true;
+        }
+        refill(now);
+        // Requests already in flight when the backend started throttling all come back with a 429,
+        // they count as a single signal
+        if (now - adjustedAt >= properties.getAdjustInterval().toMillis()) {
+            rate = Math.max(properties.getMinRate(), rate * properties.getDecreaseFactor());
+            adjustedAt = now;
+        }
+        tokens = Math.min(tokens, 0);
+        if (retryAfterMillis > 0) {
+            refilledAt = Math.max(refilledAt, now + retryAfterMillis);
+        }
+    }
+
+    private void countCall(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed >= properties.getAdjustInterval().toMillis()) {
+            lastWindowRate = windowCalls * 1000.0 / elapsed;
+            windowStart = now;
+            windowCalls = 0;
+        }
+        windowCalls++;
+    }
+
+    // Requests per second over the last full window, or the current one when it is already busier
+    private double demandRate(long now) {
+        long elapsed = Math.max(properties.getAdjustInterval().toMillis(), now - windowStart);
+        return Math.max(lastWindowRate, windowCalls * 1000.0 / elapsed);
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity(), tokens + (now - refilledAt) * rate / 1000);
+            refilledAt = now;
+        }
+    }
+
+    private double capacity() {
+        return Math.max(1, rate * properties.getBurst().toMillis() / 1000);
+    }
+}
@@ -0,0 +1,63 @@
+package com.backendify.proxy.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the backend timeouts learned from observed latencies.
+ * <p>
+ * Once {@code min-samples} calls to a backend were observed, its timeout becomes its
+ * {@code quantile} latency plus {@code headroom}, never less than {@code min-timeout}. The
+ * timeouts configured for its connection pool remain the upper bound. Timeouts are recomputed every
+ * {@code refresh-interval-ms}.
+ */
+@ConfigurationProperties(prefix = "backendify.adaptive-timeout")
+public class AdaptiveTimeoutProperties {
+
+    private boolean enabled = true;
+    private double quantile = 0.99;
+    private Duration headroom = Duration.ofMillis(100);
+    private Duration minTimeout = Duration.ofMillis(50);
+    private long minSamples = 200;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getQuantile() {
+        return quantile;
+    }
+
+    public void setQuantile(double quantile) {
+        this.quantile = quantile;
+    }
+
+    public Duration getHeadroom() {
+        return headroom;
+    }
+
+    public void setHeadroom(Duration headroom) {
+        this.headroom = headroom;
+    }
+
+    public Duration getMinTimeout() {
+        return minTimeout;
+    }
+
+    public void setMinTimeout(Duration minTimeout) {
+        this.minTimeout = minTimeout;
+    }
+
+    public long getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(long minSamples) {
+        this.minSamples = minSamples;
+    }
+}
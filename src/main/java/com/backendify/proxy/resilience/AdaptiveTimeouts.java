@@ -0,0 +1,52 @@
+package com.backendify.proxy.resilience;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Derives the timeout of each country backend from its observed latencies, so fast backends
+ * fail fast while slow ones are given the time they usually need.
+ * <p>
+ * Timeouts are read on every backend call, so they are recomputed on a schedule rather than from
+ * the latency histograms on each read.
+ */
+@Component
+@EnableConfigurationProperties(AdaptiveTimeoutProperties.class)
+public class AdaptiveTimeouts {
+
+    private final AdaptiveTimeoutProperties properties;
+    private final BackendLatencies latencies;
+    private volatile Map<String, Long> learnedTimeouts = Map.of();
+
+    @Autowired
+    public AdaptiveTimeouts(AdaptiveTimeoutProperties properties, BackendLatencies latencies) {
+        this.properties = properties;
+        this.latencies = latencies;
+    }
+
+    // Returns -1 while nothing was learned yet, the configured timeouts apply then
+    public long timeoutFor(String countryCode) {
+        Long learned = learnedTimeouts.get(countryCode);
+        return learned == null ? -1 : learned;
+    }
+
+    @Scheduled(fixedDelayString = "${backendify.adaptive-timeout.refresh-interval-ms:1000}")
+    public void refresh() {
+        Map<String, Long> learned = new HashMap<>();
+        if (properties.isEnabled()) {
+            for (String countryCode : latencies.getCountries()) {
+                long observed = latencies.percentile(countryCode, properties.getQuantile(), properties.getMinSamples());
+                if (observed >= 0) {
+                    learned.put(countryCode, Math.max(properties.getMinTimeout().toMillis(),
+                            observed + properties.getHeadroom().toMillis()));
+                }
+            }
+        }
+        learnedTimeouts = learned;
+    }
+}
@@ -0,0 +1,64 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.service.CoarseClock;
+import com.backendify.proxy.service.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Observed latency of the calls made to each country backend.
+ */
+@Component
+public class BackendLatencies {
+
+    private final MetricsService metricsService;
+    private final long windowMillis;
+    private volatile Map<String, LatencyHistogram> histograms = Map.of();
+
+    @Autowired
+    public BackendLatencies(MetricsService metricsService, @Value("${backendify.latency.window-ms:30000}") long windowMillis) {
+        this.metricsService = metricsService;
+        this.windowMillis = windowMillis;
+    }
+
+    // Starts every backend of the countryCode=backendUrl mappings with an empty histogram
+    public void register(Map<String, String> backendMappings) {
+        Map<String, LatencyHistogram> registered = new HashMap<>();
+        backendMappings.keySet().forEach(countryCode ->
+                registered.put(countryCode, new LatencyHistogram(windowMillis, CoarseClock::currentTimeMillis)));
+        histograms = registered;
+    }
+
+    public Set<String> getCountries() {
+        return histograms.keySet();
+    }
+
+    public void record(String countryCode, long millis) {
+        LatencyHistogram histogram = histograms.get(countryCode);
+        if (histogram != null) {
+            histogram.record(millis);
+        }
+    }
+
+    // Returns -1 while fewer than minSamples calls were observed
+    public long percentile(String countryCode, double fraction, long minSamples) {
+        LatencyHistogram histogram = histograms.get(countryCode);
+        return histogram == null ? -1 : histogram.percentile(fraction, minSamples);
+    }
+
+    @Scheduled(fixedRateString = "${backendify.metrics.publish-interval-ms:10000}")
+    public void publishLatencies() {
+        histograms.forEach((countryCode, histogram) -> {
+            if (histogram.getCount() > 0) {
+                metricsService.recordBackendLatency(countryCode, histogram.percentile(0.5, 1),
+                        histogram.percentile(0.9, 1), histogram.percentile(0.99, 1));
+            }
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.deadline.Deadline;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of concurrent calls to a single backend, so a slow backend holds on to a
+ * bounded number of request threads instead of all of them.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final int maxWaitingCalls;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong saturated = new AtomicLong();
+
+    public Bulkhead(String name, BulkheadProperties properties) {
+        this.name = name;
+        this.maxConcurrentCalls = properties.getMaxConcurrentCalls();
+        this.maxWaitingCalls = properties.getMaxWaitingCalls();
+        this.maxWaitMillis = properties.getMaxWait().toMillis();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Returns false when the call must be rejected, otherwise release() has to follow the call
+    public boolean tryAcquire(Deadline deadline) {
+        if (permits.tryAcquire()) {
+            notePeak();
+            return true;
+        }
+
+        // Every slot is taken, wait in line if there is room and time left
+        saturated.incrementAndGet();
+        long waitMillis = deadline == null ? maxWaitMillis : Math.min(maxWaitMillis, deadline.remainingMillis());
+        if (waitMillis <= 0) {
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxWaitingCalls) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (acquired) {
+            notePeak();
+        }
+        return acquired;
+    }
+
+    // Never waits, for callers that must not block their thread
+    public boolean tryAcquireNow() {
+        if (permits.tryAcquire()) {
+            notePeak();
+            return true;
+        }
+        saturated.incrementAndGet();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int getWaitingCalls() {
+        return waiting.get();
+    }
+
+    // Highest number of concurrent calls since the previous drain
+    public int drainPeakActiveCalls() {
+        return peakActive.getAndSet(getActiveCalls());
+    }
+
+    // Number of calls that found every slot taken since the previous drain
+    public long drainSaturatedCount() {
+        return saturated.getAndSet(0);
+    }
+
+    private void notePeak() {
+        int active = getActiveCalls();
+        peakActive.accumulateAndGet(active, Math::max);
+    }
+}
@@ -0,0 +1,44 @@
+package com.backendify.proxy.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limits applied to the calls made to each country backend.
+ * <p>
+ * At most {@code max-concurrent-calls} calls run against a backend at a time. Up to
+ * {@code max-waiting-calls} more may wait for a free slot, for no longer than {@code max-wait}
+ * nor the remaining SLA budget. Anything beyond that is rejected right away.
+ */
+@ConfigurationProperties(prefix = "backendify.bulkhead")
+public class BulkheadProperties {
+
+    private int maxConcurrentCalls = 32;
+    private int maxWaitingCalls = 16;
+    private Duration maxWait = Duration.ofMillis(100);
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public int getMaxWaitingCalls() {
+        return maxWaitingCalls;
+    }
+
+    public void setMaxWaitingCalls(int maxWaitingCalls) {
+        this.maxWaitingCalls = maxWaitingCalls;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
@@ -0,0 +1,46 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.service.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One bulkhead per country backend, publishing how close each of them is to its limit.
+ */
+@Component
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadRegistry {
+
+    private final BulkheadProperties properties;
+    private final MetricsService metricsService;
+    private volatile Map<String, Bulkhead> bulkheads = Map.of();
+
+    @Autowired
+    public BulkheadRegistry(BulkheadProperties properties, MetricsService metricsService) {
+        this.properties = properties;
+        this.metricsService = metricsService;
+    }
+
+    // Gives every backend of the countryCode=backendUrl mappings an empty bulkhead
+    public void register(Map<String, String> backendMappings) {
+        Map<String, Bulkhead> registered = new HashMap<>();
+        backendMappings.keySet().forEach(countryCode -> registered.put(countryCode, new Bulkhead(countryCode, properties)));
+        bulkheads = registered;
+    }
+
+    public Bulkhead bulkheadFor(String countryCode) {
+        return bulkheads.get(countryCode);
+    }
+
+    @Scheduled(fixedRateString = "${backendify.metrics.publish-interval-ms:10000}")
+    public void publishBulkheadStats() {
+        bulkheads.values().forEach(bulkhead -> metricsService.recordBulkheadStats(bulkhead.getName(),
+                bulkhead.getActiveCalls(), bulkhead.drainPeakActiveCalls(), bulkhead.getWaitingCalls(),
+                bulkhead.getMaxConcurrentCalls(), bulkhead.drainSaturatedCount()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.backendify.proxy.resilience;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of a single backend.
+ * <p>
+ * Outcomes are counted in one-second buckets over a sliding window. While open, calls are refused
+ * without touching the backend. Once the open duration has passed, a limited number of probe
+ * calls decide whether the breaker closes again or goes back to open.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public interface StateListener {
+        void onStateChange(String name, State from, State to);
+    }
+
+    private static final long BUCKET_MILLIS = 1000;
+
+    private final String name;
+    private final CircuitBreakerProperties properties;
+    private final StateListener listener;
+    private final LongSupplier clock;
+
+    private final long[] bucketSeconds;
+    private final int[] successes;
+    private final int[] failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public CircuitBreaker(String name, CircuitBreakerProperties properties, StateListener listener, LongSupplier clock) {
+        this.name = name;
+        this.properties = properties;
+        this.listener = listener;
+        this.clock = clock;
+        int buckets = (int) Math.max(1, properties.getWindow().toMillis() / BUCKET_MILLIS);
+        this.bucketSeconds = new long[buckets];
+        this.successes = new int[buckets];
+        this.failures = new int[buckets];
+        Arrays.fill(bucketSeconds, -1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // Returns false when the call must not reach the backend
+    public boolean tryAcquirePermission() {
+        boolean permitted = true;
+        boolean halfOpened = false;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (clock.getAsLong() - openedAt < properties.getOpenDuration().toMillis()) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                halfOpened = true;
+            }
+            if (state == State.HALF_OPEN) {
+                // Only a few probes at a time, until enough of them succeeded
+                if (probesInFlight + probeSuccesses >= properties.getHalfOpenProbes()) {
+                    permitted = false;
+                } else {
+                    probesInFlight++;
+                }
+            }
+        }
+        if (halfOpened) {
+            listener.onStateChange(name, State.OPEN, State.HALF_OPEN);
+        }
+        return permitted;
+    }
+
+    public void onSuccess() {
+        State from = null;
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                probesInFlight = Math.max(0, probesInFlight - 1);
+                if (++probeSuccesses >= properties.getHalfOpenProbes()) {
+                    from = transitionTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED) {
+                record(true);
+            }
+        }
+        notifyTransition(from, State.CLOSED);
+    }
+
+    public void onFailure() {
+        State from = null;
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                from = transitionTo(State.OPEN);
+            } else if (state == State.CLOSED) {
+                record(false);
+                if (failureRateExceeded()) {
+                    from = transitionTo(State.OPEN);
+                }
+            }
+        }
+        notifyTransition(from, State.OPEN);
+    }
+
+    // The permitted call did not reach the backend, e.g. the SLA budget ran out first
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    private State transitionTo(State to) {
+        State from = state;
+        state = to;
+        if (to == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        // Every state starts from a clean window
+        Arrays.fill(bucketSeconds, -1);
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        return from;
+    }
+
+    private void notifyTransition(State from, State to) {
+        if (from != null && from != to) {
+            listener.onStateChange(name, from, to);
+        }
+    }
+
+    private void record(boolean success) {
+        long second = clock.getAsLong() / BUCKET_MILLIS;
+        int index = (int) (second % bucketSeconds.length);
+        if (bucketSeconds[index] != second) {
+            bucketSeconds[index] = second;
+            successes[index] = 0;
+            failures[index] = 0;
+        }
+        if (success) {
+            successes[index]++;
+        } else {
+            failures[index]++;
+        }
+    }
+
+    private boolean failureRateExceeded() {
+        long oldest = clock.getAsLong() / BUCKET_MILLIS - bucketSeconds.length;
+        int total = 0;
+        int failed = 0;
+        for (int i = 0; i < bucketSeconds.length; i++) {
+            if (bucketSeconds[i] > oldest) {
+                total += successes[i] + failures[i];
+                failed += failures[i];
+            }
+        }
+        return total >= properties.getMinimumCalls() && failed >= total * properties.getFailureRateThreshold();
+    }
+}
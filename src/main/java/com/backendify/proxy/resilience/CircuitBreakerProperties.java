@@ -0,0 +1,62 @@
+package com.backendify.proxy.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings shared by the circuit breakers of all country backends.
+ * <p>
+ * A breaker opens when at least {@code minimum-calls} calls were made within the sliding
+ * {@code window} and {@code failure-rate-threshold} of them failed or timed out. It stays open for
+ * {@code open-duration}, then lets {@code half-open-probes} calls through to decide whether to close.
+ */
+@ConfigurationProperties(prefix = "backendify.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    private double failureRateThreshold = 0.5;
+    private int minimumCalls = 20;
+    private Duration window = Duration.ofSeconds(10);
+    private Duration openDuration = Duration.ofSeconds(5);
+    private int halfOpenProbes = 3;
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    public void setHalfOpenProbes(int halfOpenProbes) {
+        this.halfOpenProbes = halfOpenProbes;
+    }
+}
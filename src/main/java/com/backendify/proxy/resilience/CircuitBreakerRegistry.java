@@ -0,0 +1,45 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.service.CoarseClock;
+import com.backendify.proxy.service.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One circuit breaker per country backend, reporting its state changes as metrics.
+ */
+@Component
+@EnableConfigurationProperties(CircuitBreakerProperties.class)
+public class CircuitBreakerRegistry implements CircuitBreaker.StateListener {
+
+    private final CircuitBreakerProperties properties;
+    private final MetricsService metricsService;
+    private volatile Map<String, CircuitBreaker> breakers = Map.of();
+
+    @Autowired
+    public CircuitBreakerRegistry(CircuitBreakerProperties properties, MetricsService metricsService) {
+        this.properties = properties;
+        this.metricsService = metricsService;
+    }
+
+    // Starts every backend of the countryCode=backendUrl mappings with a closed breaker
+    public void register(Map<String, String> backendMappings) {
+        Map<String, CircuitBreaker> registered = new HashMap<>();
+        backendMappings.keySet().forEach(countryCode ->
+                registered.put(countryCode, new CircuitBreaker(countryCode, properties, this, CoarseClock::currentTimeMillis)));
+        breakers = registered;
+    }
+
+    public CircuitBreaker breakerFor(String countryCode) {
+        return breakers.get(countryCode);
+    }
+
+    @Override
+    public void onStateChange(String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+        metricsService.recordCircuitBreakerTransition(name, to.name().toLowerCase(), to.ordinal());
+    }
+}
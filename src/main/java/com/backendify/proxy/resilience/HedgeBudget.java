@@ -0,0 +1,37 @@
+package com.backendify.proxy.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged requests to a percentage of the calls made to a backend.
+ * <p>
+ * Every call deposits a fraction of a token and every hedge spends a whole one. The balance is
+ * capped, so a quiet period does not allow a burst of hedges later on.
+ */
+public class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+    private static final long MAX_BALANCE = 10 * TOKEN;
+
+    private final long deposit;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double budgetPercent) {
+        this.deposit = Math.round(TOKEN * budgetPercent / 100);
+    }
+
+    public void onCall() {
+        balance.accumulateAndGet(deposit, (current, added) -> Math.min(MAX_BALANCE, current + added));
+    }
+
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,213 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.client.BackendCallHandle;
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.deadline.DeadlineContextHolder;
+import com.backendify.proxy.service.MetricsService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs backend calls, sending a second request to the same backend when the first one takes
+ * longer than the backend usually does.
+ * <p>
+ * The first request runs on the caller's thread, the hedge on the hedge executor. Whichever
+ * answers first wins, its reply is returned and the other request is aborted. If the first request fails while the
+ * hedge is still running, the caller waits for the hedge instead. A hedge takes a slot of the
+ * backend's bulkhead like any other call, and is not sent when none is free. Latencies of the
+ * calls that were not aborted feed the backend's histogram, which sets the hedge delay.
+ */
+@Component
+@EnableConfigurationProperties(HedgingProperties.class)
+public class HedgedCallExecutor implements DisposableBean {
+
+    public interface Call<V> {
+        V call() throws Throwable;
+    }
+
+    private final HedgingProperties properties;
+    private final BackendLatencies latencies;
+    private final BulkheadRegistry bulkheads;
+    private final MetricsService metricsService;
+    private final TaskExecutor hedgeExecutor;
+    private final ScheduledExecutorService hedgeScheduler;
+    private volatile Map<String, HedgeBudget> budgets = Map.of();
+
+    @Autowired
+    public HedgedCallExecutor(HedgingProperties properties, BackendLatencies latencies, BulkheadRegistry bulkheads,
+                              MetricsService metricsService, @Qualifier("hedgeExecutor") TaskExecutor hedgeExecutor) {
+        this.properties = properties;
+        this.latencies = latencies;
+        this.bulkheads = bulkheads;
+        this.metricsService = metricsService;
+        this.hedgeExecutor = hedgeExecutor;
+        this.hedgeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Gives every backend of the countryCode=backendUrl mappings a full hedge budget
+    public void register(Map<String, String> backendMappings) {
+        Map<String, HedgeBudget> registered = new HashMap<>();
+        backendMappings.keySet().forEach(countryCode -> registered.put(countryCode, new HedgeBudget(properties.getBudgetPercent())));
+        budgets = registered;
+    }
+
+    public <V> V execute(String countryCode, Deadline deadline, Call<V> call) throws Throwable {
+        HedgeBudget budget = budgets.get(countryCode);
+        long delay = hedgeDelay(countryCode, deadline);
+        if (budget == null || delay < 0) {
+            return attempt(countryCode, new BackendCallHandle(countryCode), call);
+        }
+        budget.onCall();
+
+        AtomicReference<Hedge<V>> hedgeRef = new AtomicReference<>();
+        BackendCallHandle primaryHandle = new BackendCallHandle(countryCode);
+        ScheduledFuture<?> hedgeTimer = hedgeScheduler.schedule(
+                () -> startHedge(countryCode, deadline, call, budget, hedgeRef, primaryHandle), delay, TimeUnit.MILLISECONDS);
+        try {
+            V result = attempt(countryCode, primaryHandle, call);
+            Hedge<V> hedge = hedgeRef.getAndSet(Hedge.closed());
+            if (hedge != null && hedge != Hedge.closed()) {
+                // The hedge answered first, the first request still got its reply before the abort reached it
+                if (hedge.result.isDone() && !hedge.result.isCompletedExceptionally()) {
+                    metricsService.incrementHedgeWinCount(countryCode);
+                    return hedge.result.getNow(result);
+                }
+                // The first request won, stop the hedge
+                hedge.handle.abort();
+            }
+            return result;
+        } catch (Throwable primaryError) {
+            Hedge<V> hedge = hedgeRef.getAndSet(Hedge.closed());
+            if (hedge == null || hedge == Hedge.closed()) {
+                throw primaryError;
+            }
+            V result = awaitHedge(hedge, deadline, primaryError);
+            metricsService.incrementHedgeWinCount(countryCode);
+            return result;
+        } finally {
+            hedgeTimer.cancel(false);
+        }
+    }
+
+    private <V> void startHedge(String countryCode, Deadline deadline, Call<V> call, HedgeBudget budget,
+                                AtomicReference<Hedge<V>> hedgeRef, BackendCallHandle primaryHandle) {
+        if (hedgeRef.get() != null) {
+            return;  // The first request already completed
+        }
+        // Waiting for a slot would only delay the hedge past its point, a busy backend gets none
+        Bulkhead bulkhead = bulkheads.bulkheadFor(countryCode);
+        if (bulkhead == null || !bulkhead.tryAcquireNow()) {
+            return;
+        }
+        Hedge<V> hedge = new Hedge<>(countryCode);
+        if (!budget.tryAcquire() || !hedgeRef.compareAndSet(null, hedge)) {
+            bulkhead.release();  // The backend had its share of hedges, or the first request just completed
+            return;
+        }
+        metricsService.incrementHedgeCount(countryCode);
+        try {
+            hedgeExecutor.execute(() -> {
+                DeadlineContextHolder.set(deadline);
+                try {
+                    V result = attempt(countryCode, hedge.handle, call);
+                    if (hedge.result.complete(result)) {
+                        primaryHandle.abort();  // The hedge won, the caller picks its result up once the first request is aborted
+                    }
+                } catch (Throwable e) {
+                    hedge.result.completeExceptionally(e);
+                } finally {
+                    DeadlineContextHolder.reset();
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            hedge.result.completeExceptionally(e);  // No thread left for the hedge
+        }
+    }
+
+    private <V> V awaitHedge(Hedge<V> hedge, Deadline deadline, Throwable primaryError) throws Throwable {
+        try {
+            return deadline == null ? hedge.result.get() : hedge.result.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            hedge.handle.abort();
+            throw primaryError;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hedge.handle.abort();
+            throw primaryError;
+        }
+    }
+
+    private <V> V attempt(String countryCode, BackendCallHandle handle, Call<V> call) throws Throwable {
+        long start = System.nanoTime();
+        BackendCallHandle.bind(handle);
+        try {
+            return call.call();
+        } finally {
+            BackendCallHandle.reset();
+            // An aborted request says nothing about how fast the backend is
+            if (!handle.isAborted()) {
+                latencies.record(countryCode, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+    }
+
+    // Returns -1 when no hedge should be sent
+    private long hedgeDelay(String countryCode, Deadline deadline) {
+        if (!properties.isEnabled()) {
+            return -1;
+        }
+        long observed = latencies.percentile(countryCode, properties.getDelayPercentile(), properties.getMinSamples());
+        if (observed < 0) {
+            return -1;
+        }
+        long delay = Math.max(properties.getMinDelay().toMillis(), observed);
+        // A hedge sent too late to be answered within the SLA budget only adds load
+        if (deadline != null && deadline.remainingMillis() <= delay) {
+            return -1;
+        }
+        return delay;
+    }
+
+    @Override
+    public void destroy() {
+        hedgeScheduler.shutdownNow();
+    }
+
+    private static final class Hedge<V> {
+
+        private static final Hedge<?> CLOSED = new Hedge<>(null);
+
+        private final BackendCallHandle handle;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private Hedge(String countryCode) {
+            this.handle = new BackendCallHandle(countryCode);
+        }
+
+        @SuppressWarnings("unchecked")
+        static <V> Hedge<V> closed() {
+            return (Hedge<V>) CLOSED;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.backendify.proxy.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the speculative second request sent to a slow backend.
+ * <p>
+ * When enabled, a cache miss that has not been answered after the backend's observed
+ * {@code delay-percentile} latency (never less than {@code min-delay}) sends a second request to
+ * the same backend, and whichever answers first is used. No hedge is sent until
+ * {@code min-samples} calls were observed. Hedges are limited to {@code budget-percent} of the
+ * calls made to each backend.
+ */
+@ConfigurationProperties(prefix = "backendify.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+    private double delayPercentile = 0.9;
+    private Duration minDelay = Duration.ofMillis(20);
+    private long minSamples = 100;
+    private double budgetPercent = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getDelayPercentile() {
+        return delayPercentile;
+    }
+
+    public void setDelayPercentile(double delayPercentile) {
+        this.delayPercentile = delayPercentile;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+
+    public long getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(long minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public double getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    public void setBudgetPercent(double budgetPercent) {
+        this.budgetPercent = budgetPercent;
+    }
+}
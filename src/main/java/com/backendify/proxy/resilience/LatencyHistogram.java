@@ -0,0 +1,109 @@
+package com.backendify.proxy.resilience;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency distribution of a backend over the last one to two windows.
+ * <p>
+ * Latencies are counted in log-linear buckets: one bucket per millisecond below 16 ms, then 16
+ * buckets per power of two, so percentiles are within about 6% of the recorded values. Recording
+ * is lock-free; the counts of the current window move to the previous one when it ends.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_MILLIS = 60_000;
+    private static final int BUCKETS = indexOf(MAX_MILLIS) + 1;
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+    private volatile long windowStart;
+
+    public LatencyHistogram(long windowMillis, LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    public void record(long millis) {
+        rotateIfNeeded();
+        current.incrementAndGet(indexOf(Math.max(0, Math.min(millis, MAX_MILLIS))));
+    }
+
+    public long getCount() {
+        rotateIfNeeded();
+        AtomicLongArray recent = current;
+        AtomicLongArray older = previous;
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += recent.get(i) + older.get(i);
+        }
+        return count;
+    }
+
+    // Returns the latency below which the given fraction of calls completed, or -1 with too few samples
+    public long percentile(double fraction, long minSamples) {
+        rotateIfNeeded();
+        AtomicLongArray recent = current;
+        AtomicLongArray older = previous;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += recent.get(i) + older.get(i);
+        }
+        if (total == 0 || total < minSamples) {
+            return -1;
+        }
+        // Calls recorded meanwhile only raise the counts, so the rank is still reached
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += recent.get(i) + older.get(i);
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return MAX_MILLIS;
+    }
+
+    private void rotateIfNeeded() {
+        if (clock.getAsLong() - windowStart < windowMillis) {
+            return;
+        }
+        synchronized (this) {
+            long now = clock.getAsLong();
+            long elapsed = now - windowStart;
+            if (elapsed < windowMillis) {
+                return;
+            }
+            // After a quiet period longer than a window, the old counts are not recent anymore either
+            previous = elapsed < 2 * windowMillis ? current : new AtomicLongArray(BUCKETS);
+            current = new AtomicLongArray(BUCKETS);
+            windowStart = now;
+        }
+    }
+
+    static int indexOf(long millis) {
+        if (millis < SUB_BUCKETS) {
+            return (int) millis;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(millis);
+        int subBucket = (int) (millis >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    // Highest latency counted in the bucket
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowerBound = ((long) (SUB_BUCKETS + subBucket)) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
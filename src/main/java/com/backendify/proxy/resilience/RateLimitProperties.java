@@ -0,0 +1,95 @@
+package com.backendify.proxy.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the request rate each backend is allowed, adjusted additive-increase /
+ * multiplicative-decrease.
+ * <p>
+ * A backend is not limited until it first throttles. It is then limited from the rate it was
+ * getting, measured over the last {@code adjust-interval}. Every throttling response multiplies its
+ * rate by {@code decrease-factor}, at most once per {@code adjust-interval}, and pauses it for the
+ * Retry-After the backend asked for. While calls succeed, the rate grows back by
+ * {@code additive-increase} per {@code adjust-interval}. Once it is back at the rate the backend
+ * throttled at, the backend is no longer limited. A {@code max-rate} above 0 limits every backend
+ * to that rate from the start instead, and caps it for good. A call waits no longer than
+ * {@code max-wait} for its turn, and up to {@code burst} worth of requests may go out at once.
+ */
+@ConfigurationProperties(prefix = "backendify.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private double maxRate = 0;  // No fixed ceiling
+    private double minRate = 1;
+    private double decreaseFactor = 0.5;
+    private double additiveIncrease = 10;
+    private Duration adjustInterval = Duration.ofSeconds(1);
+    private Duration maxWait = Duration.ofMillis(50);
+    private Duration burst = Duration.ofMillis(100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getMaxRate() {
+        return maxRate;
+    }
+
+    public void setMaxRate(double maxRate) {
+        this.maxRate = maxRate;
+    }
+
+    public double getMinRate() {
+        return minRate;
+    }
+
+    public void setMinRate(double minRate) {
+        this.minRate = minRate;
+    }
+
+    public double getDecreaseFactor() {
+        return decreaseFactor;
+    }
+
+    public void setDecreaseFactor(double decreaseFactor) {
+        this.decreaseFactor = decreaseFactor;
+    }
+
+    public double getAdditiveIncrease() {
+        return additiveIncrease;
+    }
+
+    public void setAdditiveIncrease(double additiveIncrease) {
+        this.additiveIncrease = additiveIncrease;
+    }
+
+    public Duration getAdjustInterval() {
+        return adjustInterval;
+    }
+
+    public void setAdjustInterval(Duration adjustInterval) {
+        this.adjustInterval = adjustInterval;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Duration getBurst() {
+        return burst;
+    }
+
+    public void setBurst(Duration burst) {
+        this.burst = burst;
+    }
+}
@@ -0,0 +1,93 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.service.CoarseClock;
+import com.backendify.proxy.service.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One adaptive rate limiter per country backend, publishing the rate each of them is allowed.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimiterRegistry {
+
+    private final RateLimitProperties properties;
+    private final MetricsService metricsService;
+    private volatile Map<String, AdaptiveRateLimiter> limiters = Map.of();
+
+    @Autowired
+    public RateLimiterRegistry(RateLimitProperties properties, MetricsService metricsService) {
+        this.properties = properties;
+        this.metricsService = metricsService;
+    }
+
+    // Starts every backend of the countryCode=backendUrl mappings unlimited, or at the maximum rate when one is set
+    public void register(Map<String, String> backendMappings) {
+        Map<String, AdaptiveRateLimiter> registered = new HashMap<>();
+        backendMappings.keySet().forEach(countryCode ->
+                registered.put(countryCode, new AdaptiveRateLimiter(countryCode, properties, CoarseClock::currentTimeMillis)));
+        limiters = registered;
+    }
+
+    // Waits for the backend's turn, returns false when the call must not be made
+    public boolean acquire(String countryCode, Deadline deadline) {
+        long wait = reserve(countryCode, deadline);
+        if (wait < 0) {
+            return false;
+        }
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Books the backend's next turn without waiting for it, returns how long to wait or -1 when the call must not be made
+    public long reserve(String countryCode, Deadline deadline) {
+        AdaptiveRateLimiter limiter = limiters.get(countryCode);
+        if (!properties.isEnabled() || limiter == null) {
+            return 0;
+        }
+        long maxWait = properties.getMaxWait().toMillis();
+        if (deadline != null) {
+            maxWait = Math.min(maxWait, deadline.remainingMillis());
+        }
+        long wait = limiter.reserve(maxWait);
+        if (wait < 0) {
+            metricsService.incrementRateLimitedCount(countryCode);
+        }
+        return wait;
+    }
+
+    public void onSuccess(String countryCode) {
+        AdaptiveRateLimiter limiter = limiters.get(countryCode);
+        if (limiter != null) {
+            limiter.onSuccess();
+        }
+    }
+
+    public void onThrottled(String countryCode, long retryAfterMillis) {
+        AdaptiveRateLimiter limiter = limiters.get(countryCode);
+        if (limiter != null) {
+            limiter.onThrottled(retryAfterMillis);
+            metricsService.incrementBackendThrottledCount(countryCode);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${backendify.metrics.publish-interval-ms:10000}")
+    public void publishRates() {
+        // 0 while a backend is not limited
+        limiters.values().forEach(limiter -> metricsService.recordRateLimit(limiter.getName(), limiter.isLimiting() ? (long) limiter.getRate() : 0));
+    }
+}
@@ -0,0 +1,49 @@
+package com.backendify.proxy.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket limiting retries to a share of the calls made, plus a small steady allowance.
+ * It starts full.
+ */
+public class RetryBudget {
+
+    private final double capacity;
+    private final double perCall;
+    private final double perMilli;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long refilledAt;
+
+    public RetryBudget(double capacity, double perCall, double perSecond, LongSupplier clock) {
+        this.capacity = capacity;
+        this.perCall = perCall;
+        this.perMilli = perSecond / 1000;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    public synchronized void onCall() {
+        refill();
+        tokens = Math.min(capacity, tokens + perCall);
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * perMilli);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.exception.BackendThrottledException;
+import com.backendify.proxy.exception.DeadlineExceededException;
+import com.backendify.proxy.exception.RateLimitedException;
+import com.backendify.proxy.service.CoarseClock;
+import com.backendify.proxy.service.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether and when a failed backend call is retried. Backend GETs are idempotent, so
+ * any 5xx, throttling or connectivity failure may be retried.
+ */
+@Component
+@EnableConfigurationProperties(RetryProperties.class)
+public class RetryPolicy {
+
+    private final RetryProperties properties;
+    private final MetricsService metricsService;
+    private volatile RetryBudget budget;
+
+    @Autowired
+    public RetryPolicy(RetryProperties properties, MetricsService metricsService) {
+        this.properties = properties;
+        this.metricsService = metricsService;
+        this.budget = newBudget();
+    }
+
+    // Starts the backends of the countryCode=backendUrl mappings with a full retry budget
+    public void register(Map<String, String> backendMappings) {
+        budget = newBudget();
+    }
+
+    // Every backend call earns a share of a retry
+    public void onCall() {
+        budget.onCall();
+    }
+
+    // Returns how long to wait before the next attempt, or -1 when the failure is final
+    public long backoffMillis(String countryCode, int attempt, Throwable failure, Deadline deadline) {
+        // A call held back by our own rate limit already waited as long as it should
+        if (attempt >= properties.getMaxAttempts() || failure instanceof DeadlineExceededException
+                || failure instanceof RateLimitedException) {
+            return -1;
+        }
+
+        long backoff;
+        long retryAfter = failure instanceof BackendThrottledException ? ((BackendThrottledException) failure).getRetryAfterMillis() : -1;
+        if (retryAfter >= 0) {
+            if (retryAfter > properties.getMaxRetryAfter().toMillis()) {
+                return -1;  // The backend will not be back in time to matter
+            }
+            backoff = retryAfter;
+        } else {
+            // Full jitter, so callers failing together do not retry together
+            long ceiling = Math.min(properties.getMaxBackoff().toMillis(),
+                    properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+            backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        }
+
+        if (deadline != null && deadline.remainingMillis() - backoff < properties.getMinAttemptBudget().toMillis()) {
+            return -1;
+        }
+        if (!budget.tryAcquire()) {
+            metricsService.incrementRetryBudgetExhaustedCount(countryCode);
+            return -1;
+        }
+        return backoff;
+    }
+
+    private RetryBudget newBudget() {
+        return new RetryBudget(properties.getBudgetCapacity(), properties.getBudgetRatio(),
+                properties.getBudgetPerSecond(), CoarseClock::currentTimeMillis);
+    }
+
+    // Returns false when interrupted, the retry should be given up then
+    public boolean awaitBackoff(long backoffMillis) {
+        if (backoffMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(backoffMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Parses a Retry-After value, either delay seconds or an HTTP date. Returns -1 when absent or invalid
+    public static long parseRetryAfter(String value, long nowMillis) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed) * 1000);
+        } catch (NumberFormatException e) {
+            // Not delay seconds, try an HTTP date
+        }
+        try {
+            long at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - nowMillis);
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
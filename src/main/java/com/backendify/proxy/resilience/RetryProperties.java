@@ -0,0 +1,94 @@
+package com.backendify.proxy.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the retries of failed backend calls.
+ * <p>
+ * A call is attempted at most {@code max-attempts} times. Retries wait a random backoff of up to
+ * {@code initial-backoff}, doubling with every attempt up to {@code max-backoff}, or the time the
+ * backend asked for with Retry-After if no more than {@code max-retry-after}. A retry is only made
+ * when at least {@code min-attempt-budget} of the SLA budget remains after the backoff.
+ * <p>
+ * Retries across all backends share a token bucket holding up to {@code budget-capacity} retries.
+ * It is refilled by {@code budget-ratio} retries per backend call and {@code budget-per-second}
+ * retries per second, so an outage cannot multiply the load sent to the backends.
+ */
+@ConfigurationProperties(prefix = "backendify.retry")
+public class RetryProperties {
+
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(20);
+    private Duration maxBackoff = Duration.ofMillis(200);
+    private Duration maxRetryAfter = Duration.ofSeconds(1);
+    private Duration minAttemptBudget = Duration.ofMillis(100);
+    private double budgetCapacity = 20;
+    private double budgetRatio = 0.1;
+    private double budgetPerSecond = 10;
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Duration getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    public void setMaxRetryAfter(Duration maxRetryAfter) {
+        this.maxRetryAfter = maxRetryAfter;
+    }
+
+    public Duration getMinAttemptBudget() {
+        return minAttemptBudget;
+    }
+
+    public void setMinAttemptBudget(Duration minAttemptBudget) {
+        this.minAttemptBudget = minAttemptBudget;
+    }
+
+    public double getBudgetCapacity() {
+        return budgetCapacity;
+    }
+
+    public void setBudgetCapacity(double budgetCapacity) {
+        this.budgetCapacity = budgetCapacity;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public double getBudgetPerSecond() {
+        return budgetPerSecond;
+    }
+
+    public void setBudgetPerSecond(double budgetPerSecond) {
+        this.budgetPerSecond = budgetPerSecond;
+    }
+}
@@ -0,0 +1,44 @@
+package com.backendify.proxy.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits of a batch lookup on {@code /companies}.
+ * <p>
+ * A batch holds at most {@code max-items} companies. Those missing from the cache are fetched with
+ * at most {@code concurrency-per-backend} calls in flight per backend, all within {@code budget}
+ * of the request arriving.
+ */
+@ConfigurationProperties(prefix = "backendify.batch")
+public class BatchLookupProperties {
+
+    private int maxItems = 1000;
+    private int concurrencyPerBackend = 8;  // Leaves most of each bulkhead to single lookups
+    private Duration budget = Duration.ofMillis(900);  // Same SLA as a single lookup
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    public void setMaxItems(int maxItems) {
+        this.maxItems = maxItems;
+    }
+
+    public int getConcurrencyPerBackend() {
+        return concurrencyPerBackend;
+    }
+
+    public void setConcurrencyPerBackend(int concurrencyPerBackend) {
+        this.concurrencyPerBackend = concurrencyPerBackend;
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Duration budget) {
+        this.budget = budget;
+    }
+}
@@ -0,0 +1,59 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.cache.CompanyLog;
+import com.backendify.proxy.cache.OffHeapCompanyCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically reports the size, estimated resident bytes and evictions of companyCache, on or off the heap.
+ * On the heap, its hits and misses are reported too, from which the hit ratio of the first tier follows.
+ */
+@Component
+public class CacheMetricsPublisher {
+
+    private final CacheManager cacheManager;
+    private final MetricsService metricsService;
+    private long lastEvictionCount;
+    private long lastHitCount;
+    private long lastMissCount;
+
+    @Autowired
+    public CacheMetricsPublisher(CacheManager cacheManager, MetricsService metricsService) {
+        this.cacheManager = cacheManager;
+        this.metricsService = metricsService;
+    }
+
+    @Scheduled(fixedRateString = "${backendify.metrics.publish-interval-ms:10000}")
+    public synchronized void publishCacheStats() {
+        org.springframework.cache.Cache companyCache = cacheManager.getCache("companyCache");
+        if (companyCache instanceof OffHeapCompanyCache) {
+            // Off-heap, the budget is allocated up front: report the bytes holding records
+            CompanyLog log = ((OffHeapCompanyCache) companyCache).getNativeCache();
+            long evictionCount = log.evictedCount();
+            metricsService.recordCacheStats("company", log.size(), log.usedBytes(), evictionCount - lastEvictionCount);
+            lastEvictionCount = evictionCount;
+            return;
+        }
+        if (!(companyCache instanceof CaffeineCache)) {
+            return;
+        }
+        Cache<Object, Object> nativeCache = ((CaffeineCache) companyCache).getNativeCache();
+
+        CacheStats stats = nativeCache.stats();
+        long evictionCount = stats.evictionCount();
+        long estimatedBytes = nativeCache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        metricsService.recordCacheStats("company", nativeCache.estimatedSize(), estimatedBytes, evictionCount - lastEvictionCount);
+        lastEvictionCount = evictionCount;
+        metricsService.recordCacheHits("company", stats.hitCount() - lastHitCount, stats.missCount() - lastMissCount);
+        lastHitCount = stats.hitCount();
+        lastMissCount = stats.missCount();
+    }
+}
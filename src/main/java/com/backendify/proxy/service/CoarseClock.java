@@ -0,0 +1,36 @@
+package com.backendify.proxy.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock shared by the request path, refreshed every few milliseconds by a single
+ * background thread. Reading it is a volatile read, with no system call and no allocation.
+ * <p>
+ * Only use it where a few milliseconds of lag do not matter, e.g. to decide whether a company
+ * is still active or how old a cache entry is.
+ */
+public final class CoarseClock {
+
+    static final long RESOLUTION_MILLIS = 5;
+
+    private static volatile long now = System.currentTimeMillis();
+
+    static {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> now = System.currentTimeMillis(), RESOLUTION_MILLIS, RESOLUTION_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private CoarseClock() {
+    }
+
+    // Epoch millis, at most a few milliseconds behind System.currentTimeMillis()
+    public static long currentTimeMillis() {
+        return now;
+    }
+}
@@ -0,0 +1,193 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.deadline.DeadlineContextHolder;
+import com.backendify.proxy.exception.BackendUnavailableException;
+import com.backendify.proxy.exception.CompanyNotFoundException;
+import com.backendify.proxy.exception.CountryNotFoundException;
+import com.backendify.proxy.exception.DeadlineExceededException;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyRef;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up many companies at once, for customers that would otherwise call {@code /company} once
+ * per company.
+ * <p>
+ * Companies found in the caches are answered right away. The others are grouped by backend URL
+ * and fetched by at most {@code concurrency-per-backend} workers per backend, which go through
+ * the usual coalescing, circuit breakers and bulkheads. Every fetch shares the deadline of the
+ * batch. Results are handed to the {@link ResultWriter} as they complete, companies still being
+ * fetched when the deadline passes are answered with a {@link DeadlineExceededException}. When
+ * every worker thread is busy, the companies of a backend that got no worker are answered with a
+ * {@link BackendUnavailableException} instead.
+ */
+@Service
+@EnableConfigurationProperties(BatchLookupProperties.class)
+public class CompanyBatchLookup {
+
+    private final CompanyService companyService;
+    private final BatchLookupProperties properties;
+    private final TaskExecutor batchLookupExecutor;
+    private final MetricsService metricsService;
+
+    @Autowired
+    public CompanyBatchLookup(CompanyService companyService, BatchLookupProperties properties,
+                              @Qualifier("batchLookupExecutor") TaskExecutor batchLookupExecutor, MetricsService metricsService) {
+        this.companyService = companyService;
+        this.properties = properties;
+        this.batchLookupExecutor = batchLookupExecutor;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Receives the result of every company of a batch, once each and in completion order. All calls
+     * are made on the thread running the batch.
+     */
+    public interface ResultWriter {
+
+        // Exactly one of company and error is null
+        void write(int index, CompanyRef ref, CachedCompany company, Throwable error) throws IOException;
+
+        // Called once the results available so far are written
+        void flush() throws IOException;
+    }
+
+    public int getMaxItems() {
+        return properties.getMaxItems();
+    }
+
+    public Deadline newDeadline() {
+        return Deadline.after(properties.getBudget());
+    }
+
+    // Blocks until every company of the batch is written, or the deadline has passed
+    public void lookup(List<CompanyRef> refs, Deadline deadline, ResultWriter writer) throws IOException {
+        long start = System.nanoTime();
+        boolean[] answered = new boolean[refs.size()];
+        Map<String, Queue<Integer>> misses = new LinkedHashMap<>();
+        int pending = 0;
+        int cacheHits = 0;
+        for (int index = 0; index < refs.size(); index++) {
+            CompanyRef ref = refs.get(index);
+            try {
+                if (ref == null || ref.getId() == null || ref.getId().isEmpty() || ref.getCountryIso() == null) {
+                    throw new IllegalArgumentException("Both id and country_iso are required");
+                }
+                CachedCompany cached = companyService.lookupCachedCompany(ref.getId(), ref.getCountryIso());
+                if (cached != null) {
+                    cacheHits++;
+                    answer(writer, answered, index, ref, cached, null);
+                } else {
+                    misses.computeIfAbsent(companyService.getBackendUrl(ref.getCountryIso()), url -> new ConcurrentLinkedQueue<>()).add(index);
+                    pending++;
+                }
+            } catch (CompanyNotFoundException | CountryNotFoundException | IllegalArgumentException e) {
+                answer(writer, answered, index, ref, null, e);
+            }
+        }
+        writer.flush();
+
+        BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+        for (Map.Entry<String, Queue<Integer>> group : misses.entrySet()) {
+            Queue<Integer> indexes = group.getValue();
+            int workers = Math.min(indexes.size(), Math.max(1, properties.getConcurrencyPerBackend()));
+            int started = 0;
+            try {
+                for (; started < workers; started++) {
+                    batchLookupExecutor.execute(() -> fetchAll(refs, indexes, deadline, results));
+                }
+            } catch (RejectedExecutionException e) {
+                // Every thread is busy, the workers already started fetch the whole group
+            }
+            if (started == 0) {
+                BackendUnavailableException busy = new BackendUnavailableException("No capacity left to fetch from " + group.getKey());
+                Integer index;
+                while ((index = indexes.poll()) != null) {
+                    results.add(new Result(index, null, busy));
+                }
+            }
+        }
+        try {
+            while (pending > 0) {
+                Result result = results.poll(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    break;  // Deadline passed, the fetches still running are abandoned
+                }
+                answer(writer, answered, result.index, refs.get(result.index), result.company, result.error);
+                pending--;
+                if (results.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int expired = pending;
+        if (expired > 0) {
+            DeadlineExceededException timeout = new DeadlineExceededException("Batch budget of " + deadline.getBudgetMillis() + " ms exhausted");
+            for (Queue<Integer> indexes : misses.values()) {
+                indexes.clear();  // Workers stop at their next company
+            }
+            for (int index = 0; index < answered.length; index++) {
+                if (!answered[index]) {
+                    answer(writer, answered, index, refs.get(index), null, timeout);
+                }
+            }
+            writer.flush();
+        }
+        metricsService.recordBatchLookup(refs.size(), cacheHits, expired, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Fetches companies of a single backend until there are none left or the deadline has passed
+    private void fetchAll(List<CompanyRef> refs, Queue<Integer> indexes, Deadline deadline, BlockingQueue<Result> results) {
+        DeadlineContextHolder.set(deadline);  // Backend timeouts follow the deadline of the batch
+        try {
+            Integer index;
+            while (!deadline.isExpired() && (index = indexes.poll()) != null) {
+                CompanyRef ref = refs.get(index);
+                try {
+                    results.add(new Result(index, companyService.fetchCompany(ref.getId(), ref.getCountryIso(), deadline), null));
+                } catch (Throwable e) {
+                    results.add(new Result(index, null, e));
+                }
+            }
+        } finally {
+            DeadlineContextHolder.reset();
+        }
+    }
+
+    private static void answer(ResultWriter writer, boolean[] answered, int index, CompanyRef ref, CachedCompany company, Throwable error) throws IOException {
+        answered[index] = true;
+        writer.write(index, ref, company, error);
+    }
+
+    private static final class Result {
+
+        private final int index;
+        private final CachedCompany company;
+        private final Throwable error;
+
+        private Result(int index, CachedCompany company, Throwable error) {
+            this.index = index;
+            this.company = company;
+            this.error = error;
+        }
+    }
+}
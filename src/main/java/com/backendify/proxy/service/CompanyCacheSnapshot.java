@@ -0,0 +1,175 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.cache.OffHeapCompanyCache;
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.exception.CountryNotFoundException;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Saves companyCache to a file and restores it on startup, so a restarted instance does not
+ * send all of its traffic to the backends at once.
+ * <p>
+ * The file holds a header followed by one record per company: country code, id, JSON-escaped
+ * name, closure time and the time the backend answered. Entries keep their original age, and
+ * those past {@code hard-ttl + stale-grace} are dropped on load. A snapshot is written next to
+ * the previous one and moved over it, so a crash while saving leaves the previous one intact.
+ */
+@Component
+public class CompanyCacheSnapshot implements DisposableBean {
+
+    private static final int MAGIC = 0x42434331;  // "BCC1"
+    private static final int VERSION = 1;
+    private static final byte ENTRY = 1;
+    private static final byte END = 0;
+
+    private final CompanyService companyService;
+    private final MetricsService metricsService;
+    private final Cache companyCache;
+    private final Path path;
+    private final long lifetimeMillis;
+    private volatile boolean loaded;
+
+    @Autowired
+    public CompanyCacheSnapshot(CompanyService companyService, MetricsService metricsService, CacheManager cacheManager,
+                                CompanyCacheProperties cacheProperties) {
+        this.companyService = companyService;
+        this.metricsService = metricsService;
+        this.companyCache = cacheManager.getCache("companyCache");
+        this.path = cacheProperties.getSnapshotPath() == null || cacheProperties.getSnapshotPath().isEmpty()
+                ? null : Paths.get(cacheProperties.getSnapshotPath());
+        this.lifetimeMillis = cacheProperties.getHardTtl().plus(cacheProperties.getStaleGrace()).toMillis();
+    }
+
+    // Restores the last snapshot, once the backend mappings are known. Returns the number of entries restored.
+    public synchronized int load() {
+        loaded = true;  // From now on, saving cannot overwrite a snapshot that was never read
+        if (path == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int restored = 0;
+        int dropped = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a companyCache snapshot: " + path);
+            }
+            in.readLong();  // Time of the snapshot
+            long now = CoarseClock.currentTimeMillis();
+            while (in.readByte() == ENTRY) {
+                String countryCode = in.readUTF();
+                String id = in.readUTF();
+                int nameLength = in.readInt();
+                byte[] name = null;
+                if (nameLength >= 0) {
+                    name = new byte[nameLength];
+                    in.readFully(name);
+                }
+                long activeUntil = in.readLong();
+                long fetchedAt = in.readLong();
+                CachedCompany company = new CachedCompany(name, activeUntil, fetchedAt);
+                if (company.getAgeMillis(now) >= lifetimeMillis) {
+                    dropped++;
+                    continue;
+                }
+                try {
+                    companyCache.putIfAbsent(companyService.cacheKey(id, countryCode), company);
+                    restored++;
+                } catch (CountryNotFoundException e) {
+                    dropped++;  // The country has no backend anymore
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // First start, nothing to restore
+        } catch (IOException e) {
+            metricsService.incrementCacheSnapshotErrorCount();  // Keep what was restored, start cold for the rest
+        }
+        metricsService.recordCacheSnapshotLoad(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), restored, dropped);
+        return restored;
+    }
+
+    @Scheduled(fixedDelayString = "${backendify.cache.snapshot-interval-ms:300000}",
+            initialDelayString = "${backendify.cache.snapshot-interval-ms:300000}")
+    public void scheduledSave() {
+        save();
+    }
+
+    // Writes the current content of companyCache. Returns the number of entries written, or -1 when nothing was saved.
+    public synchronized int save() {
+        if (path == null || !loaded || !(companyCache instanceof CaffeineCache || companyCache instanceof OffHeapCompanyCache)) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        int[] written = {0};
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(CoarseClock.currentTimeMillis());
+                forEachEntry((key, company) -> {
+                    try {
+                        out.writeByte(ENTRY);
+                        out.writeUTF(companyService.countryCodeOf(key));
+                        out.writeUTF(key.getId());
+                        byte[] name = company.getNameBytes();
+                        out.writeInt(name == null ? -1 : name.length);
+                        if (name != null) {
+                            out.write(name);
+                        }
+                        out.writeLong(company.getActiveUntil());
+                        out.writeLong(company.getFetchedAt());
+                        written[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.writeByte(END);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            metricsService.incrementCacheSnapshotErrorCount();
+            return -1;
+        }
+        metricsService.recordCacheSnapshotSave(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), written[0]);
+        return written[0];
+    }
+
+    private void forEachEntry(BiConsumer<CompanyKey, CachedCompany> action) {
+        if (companyCache instanceof OffHeapCompanyCache) {
+            ((OffHeapCompanyCache) companyCache).getNativeCache().forEach(action);
+            return;
+        }
+        ((CaffeineCache) companyCache).getNativeCache().asMap().forEach((key, value) -> {
+            if (key instanceof CompanyKey && value instanceof CachedCompany) {
+                action.accept((CompanyKey) key, (CachedCompany) value);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        save();
+    }
+}
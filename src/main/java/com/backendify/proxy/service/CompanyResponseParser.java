@@ -0,0 +1,122 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.exception.BackendResponseFormatException;
+import com.backendify.proxy.exception.UnexpectedContentTypeException;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyJson;
+import com.backendify.proxy.model.Rfc3339;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Turns V1 and V2 backend replies into cache entries, for both the blocking and the reactive stack.
+ * <p>
+ * Replies are read token by token straight from the response stream. Only the name and the
+ * closure date are kept, every other field is skipped without being materialized.
+ */
+@Component
+public class CompanyResponseParser {
+
+    private static final String V1_NAME = "cn";
+    private static final String V1_CLOSED_ON = "closed_on";
+    private static final String V2_NAME = "company_name";
+    private static final String V2_CLOSED_ON = "dissolved_on";
+
+    private final JsonFactory jsonFactory;
+    private final MetricsService metricsService;
+
+    @Autowired
+    public CompanyResponseParser(ObjectMapper objectMapper, MetricsService metricsService) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.metricsService = metricsService;
+    }
+
+    // Throws IOException when the stream itself fails, as opposed to the reply being malformed
+    public CachedCompany parse(String contentType, InputStream body) throws UnexpectedContentTypeException, BackendResponseFormatException, IOException {
+        return parse(contentType, body, true);
+    }
+
+    // Warm-up runs synthetic replies through the same code without counting them
+    CachedCompany parse(String contentType, InputStream body, boolean counted) throws UnexpectedContentTypeException, BackendResponseFormatException, IOException {
+        if ("application/x-company-v1".equals(contentType)) {
+            if (counted) {
+                metricsService.incrementCompanyV1ResponseCount();
+            }
+            return parseCompany(body, V1_NAME, V1_CLOSED_ON);
+        } else if ("application/x-company-v2".equals(contentType)) {
+            if (counted) {
+                metricsService.incrementCompanyV2ResponseCount();
+            }
+            return parseCompany(body, V2_NAME, V2_CLOSED_ON);
+        } else {
+            if (counted) {
+                metricsService.incrementUnexpectedContentTypeCount();
+            }
+            throw new UnexpectedContentTypeException("Unsupported backend response type");
+        }
+    }
+
+    private CachedCompany parseCompany(InputStream body, String nameField, String closedOnField) throws BackendResponseFormatException, IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new BackendResponseFormatException("Backend reply is not a JSON object");
+            }
+            String name = null;
+            long activeUntil = CachedCompany.NO_CLOSURE;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                // Field names come from Jackson's symbol table, so comparing them allocates nothing
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (nameField.equals(field)) {
+                    name = textOf(parser, value);
+                } else if (closedOnField.equals(field)) {
+                    activeUntil = parseActiveUntil(parser, value);
+                } else {
+                    parser.skipChildren();  // Nested objects and arrays are skipped without being built
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new BackendResponseFormatException("Backend reply ends before the JSON object does");
+            }
+            return new CachedCompany(name == null ? null : CompanyJson.escape(name), activeUntil, CoarseClock.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            throw new BackendResponseFormatException(e);
+        }
+    }
+
+    // Scalars are read as text the way data binding coerces them into a String field, objects and arrays are rejected
+    private static String textOf(JsonParser parser, JsonToken value) throws IOException, BackendResponseFormatException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw new BackendResponseFormatException("Unexpected " + value + " for " + parser.getCurrentName());
+        }
+        return parser.getText();
+    }
+
+    // Parses closed_on/dissolved_on once, so activity can be checked on every read without parsing again
+    private static long parseActiveUntil(JsonParser parser, JsonToken value) throws IOException, BackendResponseFormatException {
+        if (value == JsonToken.VALUE_NULL) {
+            return CachedCompany.NO_CLOSURE;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            throw new BackendResponseFormatException("Unexpected " + value + " for " + parser.getCurrentName());
+        }
+        // Read from the parser's own buffer, no String is built for the timestamp
+        long activeUntil = Rfc3339.parseEpochMillis(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (activeUntil == Rfc3339.INVALID) {
+            throw new BackendResponseFormatException("Invalid RFC 3339 timestamp for " + parser.getCurrentName() + ": " + parser.getText());
+        }
+        return activeUntil;
+    }
+}
@@ -1,131 +1,437 @@
 package com.backendify.proxy.service;
 
+import com.backendify.proxy.cache.DiskCompanyCache;
+import com.backendify.proxy.client.BackendCallHandle;
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.deadline.DeadlineContextHolder;
 import com.backendify.proxy.exception.*;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
 import com.backendify.proxy.model.CompanyResponse;
-import com.backendify.proxy.model.CompanyV1Response;
-import com.backendify.proxy.model.CompanyV2Response;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.backendify.proxy.resilience.BackendLatencies;
+import com.backendify.proxy.resilience.Bulkhead;
+import com.backendify.proxy.resilience.BulkheadRegistry;
+import com.backendify.proxy.resilience.CircuitBreaker;
+import com.backendify.proxy.resilience.CircuitBreakerRegistry;
+import com.backendify.proxy.resilience.HedgedCallExecutor;
+import com.backendify.proxy.resilience.RateLimiterRegistry;
+import com.backendify.proxy.resilience.RetryPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class CompanyService {
 
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final CompanyResponseParser responseParser;
     private Map<String, String> backendMappings;
+    private Map<String, Short> countryIndexes = Map.of();
+    private String[] countryCodes = new String[0];
     private final MetricsService metricsService;
+    private final RequestCoalescer requestCoalescer;
+    private final Cache companyCache;
+    private final Cache notFoundCache;
+    private final DiskCompanyCache diskCache;
+    private final TaskExecutor cacheRefreshExecutor;
+    private final long softTtlMillis;
+    private final long hardTtlMillis;
+    private final Set<CompanyKey> refreshing = ConcurrentHashMap.newKeySet();
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final BackendLatencies backendLatencies;
+    private final HedgedCallExecutor hedgedCalls;
+    private final RetryPolicy retryPolicy;
+    private final RateLimiterRegistry rateLimiters;
+    private final RefreshAhead refreshAhead;
 
     // Constructor injection for RestTemplate
     @Autowired
-    public CompanyService(RestTemplate restTemplate, ObjectMapper objectMapper, MetricsService metricsService) {
+    public CompanyService(RestTemplate restTemplate, CompanyResponseParser responseParser, MetricsService metricsService, RequestCoalescer requestCoalescer,
+                          CacheManager cacheManager, DiskCompanyCache diskCache, CompanyCacheProperties cacheProperties,
+                          @Qualifier("cacheRefreshExecutor") TaskExecutor cacheRefreshExecutor, CircuitBreakerRegistry circuitBreakers,
+                          BulkheadRegistry bulkheads, BackendLatencies backendLatencies, HedgedCallExecutor hedgedCalls,
+                          RetryPolicy retryPolicy, RateLimiterRegistry rateLimiters, RefreshAhead refreshAhead) {
         this.restTemplate = restTemplate;
-        this.objectMapper = objectMapper;
+        this.responseParser = responseParser;
         this.metricsService = metricsService;
+        this.requestCoalescer = requestCoalescer;
+        this.companyCache = cacheManager.getCache("companyCache");
+        this.notFoundCache = cacheManager.getCache("companyNotFoundCache");
+        this.diskCache = diskCache;
+        this.cacheRefreshExecutor = cacheRefreshExecutor;
+        this.softTtlMillis = cacheProperties.getSoftTtl().toMillis();
+        this.hardTtlMillis = cacheProperties.getHardTtl().toMillis();
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.backendLatencies = backendLatencies;
+        this.hedgedCalls = hedgedCalls;
+        this.retryPolicy = retryPolicy;
+        this.rateLimiters = rateLimiters;
+        this.refreshAhead = refreshAhead;
     }
 
     public void setBackendMappings(Map<String, String> backendMappings){
         this.backendMappings = backendMappings;
+        circuitBreakers.register(backendMappings);
+        bulkheads.register(backendMappings);
+        backendLatencies.register(backendMappings);
+        hedgedCalls.register(backendMappings);
+        retryPolicy.register(backendMappings);
+        rateLimiters.register(backendMappings);
+        refreshAhead.register(backendMappings);
+
+        // Cache keys refer to countries by a small index instead of holding on to the ISO code
+        String[] codes = new TreeSet<>(backendMappings.keySet()).toArray(new String[0]);
+        Map<String, Short> indexes = new HashMap<>();
+        for (short index = 0; index < codes.length; index++) {
+            indexes.put(codes[index], index);
+        }
+        this.countryIndexes = indexes;
+        this.countryCodes = codes;
+    }
+
+    public CompanyKey cacheKey(String id, String countryIso) throws CountryNotFoundException {
+        Short countryIndex = countryIndexes.get(countryIso);
+        if (countryIndex == null)
+            throw new CountryNotFoundException("No backend configured for country code: " + countryIso);
+
+        return new CompanyKey(countryIndex, id);
+    }
+
+    // Reverses cacheKey(), for the country part of the key
+    public String countryCodeOf(CompanyKey key) {
+        return countryCodes[key.getCountryIndex()];
     }
 
-    @Cacheable(value = "companyCache", key = "#id.concat('-').concat(#countryIso)", unless = "#result == null")
+    // "active" is evaluated against the current time on every read, never frozen into the cache
     public CompanyResponse getCompany(String id, String countryIso) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        return lookupCompany(id, countryIso).toResponse(id, CoarseClock.currentTimeMillis());
+    }
+
+    // Returns the cache entry of a company, fetching it from the backend when needed
+    public CachedCompany lookupCompany(String id, String countryIso) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        CachedCompany cached = lookupCachedCompany(id, countryIso);
+        return cached != null ? cached : fetchCompany(id, countryIso, DeadlineContextHolder.get());
+    }
+
+    // Answers from the caches alone, returns null when the backend has to be asked with fetchCompany()
+    public CachedCompany lookupCachedCompany(String id, String countryIso) throws CompanyNotFoundException, CountryNotFoundException {
         metricsService.incrementRequestCount();  // Count total requests
 
+        // Return the URL based on the country ISO code
+        String backendUrl = getBackendUrl(countryIso);
+        CompanyKey key = cacheKey(id, countryIso);
+        refreshAhead.recordAccess(key);
+
+        CachedCompany cached = companyCache.get(key, CachedCompany.class);
+        if (cached == null && (cached = diskCache.get(key)) != null) {
+            companyCache.put(key, cached);  // Back on the heap, the disk copy is replaced if it is pushed out again
+        }
+        if (cached != null) {
+            long age = cached.getAgeMillis(CoarseClock.currentTimeMillis());
+            if (age < hardTtlMillis) {
+                // Past the soft TTL, keep serving the cached reply while it is refreshed in the background
+                if (age >= softTtlMillis) {
+                    refreshInBackground(key, id, countryIso, backendUrl);
+                }
+                return cached;
+            }
+        }
+
+        // Companies the backend recently reported as unknown are not asked for again
+        if (notFoundCache.get(key) != null) {
+            metricsService.incrementNotFoundCacheHitCount();
+            throw new CompanyNotFoundException("Company not found");
+        }
+        metricsService.incrementNotFoundCacheMissCount();
+        return null;
+    }
+
+    // Calls the backend for a company the caches could not answer, within the deadline of the customer when there is one
+    public CachedCompany fetchCompany(String id, String countryIso, Deadline deadline) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        String backendUrl = getBackendUrl(countryIso);
+        CompanyKey key = cacheKey(id, countryIso);
+
+        // Past its hard TTL but within the grace window, unless another request has loaded it since
+        CachedCompany cached = peekCachedCompany(key);
+        if (cached != null && cached.getAgeMillis(CoarseClock.currentTimeMillis()) < hardTtlMillis) {
+            return cached;
+        }
+
+        // Fail fast when the customer has already given up on this request
+        try {
+            if (deadline != null && deadline.isExpired()) {
+                metricsService.incrementDeadlineExceededCount();
+                throw new DeadlineExceededException("SLA budget of " + deadline.getBudgetMillis() + " ms exhausted before calling backend");
+            }
+            return loadCompany(key, id, countryIso, backendUrl, deadline);
+        } catch (BackendServerException | ConnectivityTimeoutException e) {
+            // Within the grace window, a stale reply beats an error
+            if (cached != null) {
+                metricsService.incrementStaleServedCount();
+                return cached;
+            }
+            throw e;
+        }
+    }
+
+    // Concurrent cache misses for the same company share a single backend call
+    private CachedCompany loadCompany(CompanyKey key, String id, String countryIso, String backendUrl, Deadline deadline) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        try {
+            return requestCoalescer.execute(key, () -> {
+                metricsService.incrementBackendFetchCount();
+                try {
+                    CachedCompany company = callBackend(id, countryIso, backendUrl, deadline);
+                    companyCache.put(key, company);
+                    return company;
+                } catch (CompanyNotFoundException e) {
+                    companyCache.evict(key);  // The company is gone, stop serving it
+                    diskCache.evict(key);
+                    notFoundCache.put(key, Boolean.TRUE);
+                    throw e;
+                }
+            });
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void refreshInBackground(CompanyKey key, String id, String countryIso, String backendUrl) {
+        refreshInBackground(key, id, countryIso, backendUrl, () -> { });
+    }
+
+    // Returns false when the refresh was not started, in which case onDone is not called
+    private boolean refreshInBackground(CompanyKey key, String id, String countryIso, String backendUrl, Runnable onDone) {
+        if (!refreshing.add(key)) {
+            return false;  // A refresh for this company is already queued or running
+        }
         try {
-            // Return the URL based on the country ISO code
-            String backendUrl = getBackendUrl(countryIso);
-            // Call the backend service using RestTemplate
-            ResponseEntity<String> response = restTemplate.getForEntity(backendUrl + "/companies/" + id, String.class);
-
-            String body = response.getBody();
-            HttpHeaders responseHeaders = response.getHeaders();
-            if (responseHeaders.getContentType() != null) {
-                String contentType = responseHeaders.getContentType().toString();
-
-                if ("application/x-company-v1".equals(contentType)) {
-                    metricsService.incrementCompanyV1ResponseCount();
-                    return parseV1Response(id, body);
-                } else if ("application/x-company-v2".equals(contentType)) {
-                    metricsService.incrementCompanyV2ResponseCount();
-                    return parseV2Response(id, body);
-                } else {
-                    metricsService.incrementUnexpectedContentTypeCount();
-                    throw new UnexpectedContentTypeException("Unsupported backend response type");
+            cacheRefreshExecutor.execute(() -> {
+                try {
+                    loadCompany(key, id, countryIso, backendUrl, null);
+                    metricsService.incrementCacheRefreshCount();
+                } catch (Throwable e) {
+                    // Keep the cached reply, the next read past the soft TTL tries again
+                    metricsService.incrementCacheRefreshErrorCount();
+                } finally {
+                    refreshing.remove(key);
+                    onDone.run();
                 }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            return false;
+        }
+    }
+
+    // Counts a read served by the reactive stack, which shares the refresh-ahead of this service
+    public void recordAccess(CompanyKey key) {
+        refreshAhead.recordAccess(key);
+    }
+
+    // Refreshes hot companies before they reach their soft TTL, a few at a time per backend and while it is quiet
+    @Scheduled(fixedDelayString = "${backendify.cache.refresh-ahead.scan-interval-ms:5000}")
+    public void refreshHotCompanies() {
+        long now = CoarseClock.currentTimeMillis();
+        int started = 0;
+        for (CompanyKey key : refreshAhead.hotKeys()) {
+            CachedCompany cached = peekCachedCompany(key);
+            if (cached == null || !refreshAhead.isDue(cached, now)) {
+                continue;  // Not cached means not hot for long, the next read fetches it
+            }
+            String countryIso = countryCodeOf(key);
+            String backendUrl = backendMappings.get(countryIso);
+            if (backendUrl == null || !refreshAhead.tryAcquire(countryIso)) {
+                continue;
+            }
+            if (refreshInBackground(key, key.getId(), countryIso, backendUrl, () -> refreshAhead.release(countryIso))) {
+                started++;
+            } else {
+                refreshAhead.release(countryIso);
             }
-                throw new IllegalStateException("Content Type is null");
+        }
+        metricsService.recordRefreshAhead(refreshAhead.hotKeyCount(), started);
+    }
+
+    // Reads companyCache without counting towards its hit ratio, for reads that are not a customer's lookup
+    private CachedCompany peekCachedCompany(CompanyKey key) {
+        if (companyCache instanceof CaffeineCache) {
+            return (CachedCompany) ((CaffeineCache) companyCache).getNativeCache().asMap().get(key);
+        }
+        return companyCache.get(key, CachedCompany.class);
+    }
+
+    // Guards the backend call with the circuit breaker and the bulkhead of its country, hedging it when enabled
+    private CachedCompany callBackend(String id, String countryIso, String backendUrl, Deadline deadline) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        CircuitBreaker breaker = circuitBreakers.breakerFor(countryIso);
+        if (!breaker.tryAcquirePermission()) {
+            metricsService.incrementCircuitBreakerRejectionCount(countryIso);
+            throw new BackendUnavailableException("Backend for country code " + countryIso + " is unavailable");
+        }
+        Bulkhead bulkhead = bulkheads.bulkheadFor(countryIso);
+        if (!bulkhead.tryAcquire(deadline)) {
+            breaker.onIgnored();
+            metricsService.incrementBulkheadRejectionCount(countryIso);
+            throw new BackendUnavailableException("Backend for country code " + countryIso + " has too many calls in flight");
+        }
+
+        try {
+            CachedCompany company = fetchWithRetries(id, countryIso, backendUrl, deadline);
+            breaker.onSuccess();
+            return company;
+        } catch (RateLimitedException e) {
+            breaker.onIgnored();  // Held back on our side, the backend was not asked
+            throw e;
+        } catch (BackendThrottledException e) {
+            breaker.onIgnored();  // The backend is up and asks for fewer calls, the rate limiter slows down
+            throw e;
+        } catch (BackendServerException | ConnectivityTimeoutException e) {
+            breaker.onFailure();
+            throw e;
+        } catch (CompanyNotFoundException | BackendResponseFormatException | UnexpectedContentTypeException | RuntimeException e) {
+            breaker.onSuccess();  // The backend answered, just not with a company
+            throw e;
+        } catch (Throwable e) {
+            breaker.onIgnored();
+            throw rethrow(e);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // Retries failed attempts while the SLA budget and the retry budget allow it
+    private CachedCompany fetchWithRetries(String id, String countryIso, String backendUrl, Deadline deadline) throws Throwable {
+        retryPolicy.onCall();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return hedgedCalls.execute(countryIso, deadline, () -> fetchWithinRateLimit(id, countryIso, backendUrl, deadline));
+            } catch (BackendServerException | ConnectivityTimeoutException e) {
+                long backoff = retryPolicy.backoffMillis(countryIso, attempt, e, deadline);
+                if (backoff < 0 || !retryPolicy.awaitBackoff(backoff)) {
+                    throw e;
+                }
+                metricsService.incrementRetryCount(countryIso);
+            }
+        }
+    }
+
+    // Every request to the backend waits for its turn, and throttling slows the backend's rate down
+    private CachedCompany fetchWithinRateLimit(String id, String countryIso, String backendUrl, Deadline deadline) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        if (!rateLimiters.acquire(countryIso, deadline)) {
+            throw new RateLimitedException("Backend for country code " + countryIso + " is throttling requests");
+        }
+        try {
+            CachedCompany company = requestCompany(id, backendUrl, deadline);
+            rateLimiters.onSuccess(countryIso);
+            return company;
+        } catch (BackendThrottledException e) {
+            rateLimiters.onThrottled(countryIso, e.getRetryAfterMillis());
+            throw e;
+        }
+    }
+
+    private CachedCompany requestCompany(String id, String backendUrl, Deadline deadline) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        try {
+            // Call the backend service using RestTemplate, parsing the reply as it streams in
+            return restTemplate.execute(backendUrl + "/companies/" + id, HttpMethod.GET, null, this::extractCompany);
+        } catch (UnparseableReplyException e) {
+            if (e.getCause() instanceof UnexpectedContentTypeException) {
+                throw (UnexpectedContentTypeException) e.getCause();
+            }
+            throw (BackendResponseFormatException) e.getCause();
         } catch (HttpClientErrorException.NotFound e) {
             throw new CompanyNotFoundException("Company not found");
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            metricsService.incrementBackendErrorCount();
+            throw new BackendThrottledException("Backend throttled: " + e.getStatusCode(), retryAfterMillis(e.getResponseHeaders()));
         } catch (HttpServerErrorException e) {
             metricsService.incrementBackendErrorCount();
+            long retryAfter = retryAfterMillis(e.getResponseHeaders());
+            if (e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE && retryAfter >= 0) {
+                throw new BackendThrottledException("Backend throttled: " + e.getStatusCode(), retryAfter);
+            }
             throw new BackendServerException("Backend server error: " + e.getStatusCode(), e);
         } catch (ResourceAccessException e) {
+            BackendCallHandle handle = BackendCallHandle.current();
+            if (handle != null && handle.isAborted()) {
+                // The other request of a hedged call answered first, this one did not fail
+                throw new ConnectivityTimeoutException("Backend request aborted: " + e.getMessage(), e);
+            }
             metricsService.incrementBackendErrorCount();
+            if (deadline != null && deadline.isExpired()) {
+                metricsService.incrementDeadlineExceededCount();
+                throw new DeadlineExceededException("SLA budget of " + deadline.getBudgetMillis() + " ms exhausted waiting for backend", e);
+            }
             throw new ConnectivityTimeoutException("Timeout or connectivity issue with backend: " + e.getMessage(), e);
         }
     }
 
-    private String getBackendUrl(String countryCode) throws CountryNotFoundException {
-        if (!backendMappings.containsKey(countryCode))
-            throw new CountryNotFoundException("No backend configured for country code: " + countryCode);
-
-        return backendMappings.get(countryCode);
-    }
-
-    private CompanyResponse parseV1Response(String id, String body) throws BackendResponseFormatException {
-        // Logic for parsing V1 backend response
+    // Runs on successful replies only, RestTemplate's error handler has already dealt with 4xx and 5xx
+    private CachedCompany extractCompany(ClientHttpResponse response) throws IOException {
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType == null) {
+            throw new IllegalStateException("Content Type is null");
+        }
         try {
-            CompanyV1Response v1Response = objectMapper.readValue(body, CompanyV1Response.class);
-            // Map fields from the V1 object to CompanyResponse
-            String name = v1Response.getCompanyName();
-            String closedOn = v1Response.getClosedOn();
-            boolean active = isActive(closedOn);
-            metricsService.incrementCompanyV1ResponseCount();
-            return new CompanyResponse(id, name, active, closedOn);
-        } catch(JsonProcessingException | DateTimeParseException e) {
-            throw new BackendResponseFormatException(e);
+            return responseParser.parse(contentType.toString(), response.getBody());
+        } catch (UnexpectedContentTypeException | BackendResponseFormatException e) {
+            throw new UnparseableReplyException(e);
         }
     }
 
-    private CompanyResponse parseV2Response(String id, String body) throws BackendResponseFormatException {
-        // Logic for parsing V2 backend response
-        try {
-            CompanyV2Response v2Response = objectMapper.readValue(body, CompanyV2Response.class);
-            // Map fields from the V2 object to CompanyResponse
-            String name = v2Response.getCompanyName();
-            String dissolvedOn = v2Response.getDissolvedOn();
-            boolean active = isActive(dissolvedOn);
-            metricsService.incrementCompanyV2ResponseCount();
-            return new CompanyResponse(id, name, active, dissolvedOn);
-        } catch(JsonProcessingException | DateTimeParseException e) {
-            throw new BackendResponseFormatException(e);
-        }
+    static long retryAfterMillis(HttpHeaders headers) {
+        return headers == null ? -1 : RetryPolicy.parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER), System.currentTimeMillis());
     }
 
-    private boolean isActive(String closedOn) {
-        if (closedOn == null) return true;
+    // Narrows an error shared through the coalescer back to the exceptions getCompany declares
+    private static RuntimeException rethrow(Throwable e) throws UnexpectedContentTypeException, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        if (e instanceof UnexpectedContentTypeException) throw (UnexpectedContentTypeException) e;
+        if (e instanceof BackendResponseFormatException) throw (BackendResponseFormatException) e;
+        if (e instanceof CompanyNotFoundException) throw (CompanyNotFoundException) e;
+        if (e instanceof CountryNotFoundException) throw (CountryNotFoundException) e;
+        if (e instanceof BackendServerException) throw (BackendServerException) e;
+        if (e instanceof ConnectivityTimeoutException) throw (ConnectivityTimeoutException) e;
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        if (e instanceof Error) throw (Error) e;
+        return new IllegalStateException(e);
+    }
 
-        // Parse the closedOn string using RFC 3339 format
-        OffsetDateTime closedOnDateTime = OffsetDateTime.parse(closedOn, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    public String getBackendUrl(String countryCode) throws CountryNotFoundException {
+        if (!backendMappings.containsKey(countryCode))
+            throw new CountryNotFoundException("No backend configured for country code: " + countryCode);
 
-        // Compare the current date-time in UTC with closed_on date-time
-        return OffsetDateTime.now(ZoneOffset.UTC).isBefore(closedOnDateTime);
+        return backendMappings.get(countryCode);
     }
 
+    // Carries a parse failure out of the ResponseExtractor, which may only throw IOException
+    private static final class UnparseableReplyException extends RuntimeException {
 
+        UnparseableReplyException(Throwable cause) {
+            super(cause);
+        }
+    }
 }
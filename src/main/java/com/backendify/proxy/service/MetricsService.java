@@ -33,5 +33,177 @@ public class MetricsService {
     public void incrementBackendErrorCount() {
         statsDClient.incrementCounter("metric.5");
     }
+
+    public void incrementDeadlineExceededCount() {
+        statsDClient.incrementCounter("deadline.exceeded");
+    }
+
+    public void incrementCoalescedRequestCount() {
+        statsDClient.incrementCounter("backend.coalesced");
+    }
+
+    public void incrementStaleServedCount() {
+        statsDClient.incrementCounter("cache.stale_served");
+    }
+
+    public void incrementCacheRefreshCount() {
+        statsDClient.incrementCounter("cache.refresh");
+    }
+
+    public void incrementCacheRefreshErrorCount() {
+        statsDClient.incrementCounter("cache.refresh_error");
+    }
+
+    public void recordRefreshAhead(int hotKeys, int started) {
+        statsDClient.recordGaugeValue("cache.refresh_ahead.hot_keys", hotKeys);
+        statsDClient.count("cache.refresh_ahead.started", started);
+    }
+
+    public void incrementNotFoundCacheHitCount() {
+        statsDClient.incrementCounter("cache.not_found.hit");
+    }
+
+    public void incrementNotFoundCacheMissCount() {
+        statsDClient.incrementCounter("cache.not_found.miss");
+    }
+
+    public void recordCacheStats(String cacheName, long entries, long estimatedBytes, long evictions) {
+        String prefix = "cache." + cacheName + ".";
+        statsDClient.recordGaugeValue(prefix + "entries", entries);
+        statsDClient.recordGaugeValue(prefix + "bytes", estimatedBytes);
+        statsDClient.count(prefix + "evictions", evictions);
+    }
+
+    public void recordCacheHits(String cacheName, long hits, long misses) {
+        String prefix = "cache." + cacheName + ".";
+        statsDClient.count(prefix + "hit", hits);
+        statsDClient.count(prefix + "miss", misses);
+    }
+
+    public void recordCacheSnapshotLoad(long millis, long restored, long dropped) {
+        statsDClient.recordExecutionTime("cache.snapshot.load_time", millis);
+        statsDClient.recordGaugeValue("cache.snapshot.restored", restored);
+        statsDClient.recordGaugeValue("cache.snapshot.dropped", dropped);
+    }
+
+    public void recordCacheSnapshotSave(long millis, long entries) {
+        statsDClient.recordExecutionTime("cache.snapshot.save_time", millis);
+        statsDClient.recordGaugeValue("cache.snapshot.entries", entries);
+    }
+
+    public void incrementCacheSnapshotErrorCount() {
+        statsDClient.incrementCounter("cache.snapshot.error");
+    }
+
+    public void recordWarmUpPhase(String phase, long millis) {
+        statsDClient.recordExecutionTime("warmup." + phase, millis);
+    }
+
+    public void recordWarmUpPreload(long loaded, long failed) {
+        statsDClient.recordGaugeValue("warmup.preload.loaded", loaded);
+        statsDClient.recordGaugeValue("warmup.preload.failed", failed);
+    }
+
+    public void recordBatchLookup(int items, int cacheHits, int expired, long millis) {
+        statsDClient.count("batch.items", items);
+        statsDClient.count("batch.cache_hits", cacheHits);
+        statsDClient.count("batch.expired", expired);
+        statsDClient.recordExecutionTime("batch.time", millis);
+    }
+
+    public void incrementDiskCacheHitCount() {
+        statsDClient.incrementCounter("cache.disk.hit");
+    }
+
+    public void incrementDiskCacheMissCount() {
+        statsDClient.incrementCounter("cache.disk.miss");
+    }
+
+    // A lookup neither cache tier could answer, counted once per backend call however many requests share it
+    public void incrementBackendFetchCount() {
+        statsDClient.incrementCounter("cache.backend.fetch");
+    }
+
+    public void incrementDiskCacheSpillCount(boolean stored) {
+        statsDClient.incrementCounter(stored ? "cache.disk.spilled" : "cache.disk.spill_rejected");
+    }
+
+    public void recordDiskCacheStats(long entries, long usedBytes, int freeSegments, long compactedRecords) {
+        statsDClient.recordGaugeValue("cache.disk.entries", entries);
+        statsDClient.recordGaugeValue("cache.disk.bytes", usedBytes);
+        statsDClient.recordGaugeValue("cache.disk.free_segments", freeSegments);
+        statsDClient.count("cache.disk.compacted", compactedRecords);
+    }
+
+    public void recordCircuitBreakerTransition(String country, String state, int stateCode) {
+        statsDClient.incrementCounter("breaker." + country + "." + state);
+        statsDClient.recordGaugeValue("breaker." + country + ".state", stateCode);
+    }
+
+    public void incrementCircuitBreakerRejectionCount(String country) {
+        statsDClient.incrementCounter("breaker." + country + ".rejected");
+    }
+
+    public void recordBulkheadStats(String country, int active, int peakActive, int waiting, int max, long saturated) {
+        String prefix = "bulkhead." + country + ".";
+        statsDClient.recordGaugeValue(prefix + "active", active);
+        statsDClient.recordGaugeValue(prefix + "peak", peakActive);
+        statsDClient.recordGaugeValue(prefix + "waiting", waiting);
+        statsDClient.recordGaugeValue(prefix + "max", max);
+        statsDClient.count(prefix + "saturated", saturated);
+    }
+
+    public void incrementBulkheadRejectionCount(String country) {
+        statsDClient.incrementCounter("bulkhead." + country + ".rejected");
+    }
+
+    public void incrementHedgeCount(String country) {
+        statsDClient.incrementCounter("hedge." + country + ".sent");
+    }
+
+    public void incrementHedgeWinCount(String country) {
+        statsDClient.incrementCounter("hedge." + country + ".won");
+    }
+
+    public void recordBackendLatency(String country, long p50, long p90, long p99) {
+        String prefix = "backend." + country + ".latency.";
+        statsDClient.recordGaugeValue(prefix + "p50", p50);
+        statsDClient.recordGaugeValue(prefix + "p90", p90);
+        statsDClient.recordGaugeValue(prefix + "p99", p99);
+    }
+
+    public void recordBackendTimeout(String country, long timeoutMillis) {
+        statsDClient.recordGaugeValue("backend." + country + ".timeout", timeoutMillis);
+    }
+
+    public void incrementRetryCount(String country) {
+        statsDClient.incrementCounter("retry." + country + ".attempted");
+    }
+
+    public void incrementRetryBudgetExhaustedCount(String country) {
+        statsDClient.incrementCounter("retry." + country + ".budget_exhausted");
+    }
+
+    public void recordRateLimit(String country, long requestsPerSecond) {
+        statsDClient.recordGaugeValue("ratelimit." + country + ".rate", requestsPerSecond);
+    }
+
+    public void incrementRateLimitedCount(String country) {
+        statsDClient.incrementCounter("ratelimit." + country + ".rejected");
+    }
+
+    public void incrementBackendThrottledCount(String country) {
+        statsDClient.incrementCounter("ratelimit." + country + ".throttled");
+    }
+
+    public void recordPoolStats(String country, int leased, int pending, int available, int max, long avgWaitMillis, long maxWaitMillis) {
+        String prefix = "pool." + country + ".";
+        statsDClient.recordGaugeValue(prefix + "leased", leased);
+        statsDClient.recordGaugeValue(prefix + "pending", pending);
+        statsDClient.recordGaugeValue(prefix + "available", available);
+        statsDClient.recordGaugeValue(prefix + "max", max);
+        statsDClient.recordGaugeValue(prefix + "wait.avg", avgWaitMillis);
+        statsDClient.recordGaugeValue(prefix + "wait.max", maxWaitMillis);
+    }
 }
 
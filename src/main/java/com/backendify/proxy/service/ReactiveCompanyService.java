@@ -0,0 +1,320 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.client.BackendPoolProperties;
+import com.backendify.proxy.client.ReactiveBackendClients;
+import com.backendify.proxy.cache.DiskCompanyCache;
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.exception.*;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import com.backendify.proxy.resilience.AdaptiveTimeouts;
+import com.backendify.proxy.resilience.BackendLatencies;
+import com.backendify.proxy.resilience.Bulkhead;
+import com.backendify.proxy.resilience.BulkheadRegistry;
+import com.backendify.proxy.resilience.CircuitBreaker;
+import com.backendify.proxy.resilience.CircuitBreakerRegistry;
+import com.backendify.proxy.resilience.RateLimiterRegistry;
+import com.backendify.proxy.resilience.RetryPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of {@link CompanyService}, serving the reactive stack.
+ * <p>
+ * It shares the backend mappings, both caches and the per-backend circuit breakers, bulkheads,
+ * rate limits and retry budget with the blocking service, and calls each backend through a
+ * connection pool of its own. Concurrent misses for the same company
+ * share one backend call through a map of in-flight replies in front of the Caffeine cache, so
+ * no thread ever waits for a backend. Hedging is left to the blocking stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCompanyService {
+
+    private final ReactiveBackendClients backendClients;
+    private final CompanyService companyService;
+    private final CompanyResponseParser responseParser;
+    private final MetricsService metricsService;
+    private final Cache companyCache;
+    private final Cache notFoundCache;
+    private final DiskCompanyCache diskCache;
+    private final long softTtlMillis;
+    private final long hardTtlMillis;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final RateLimiterRegistry rateLimiters;
+    private final RetryPolicy retryPolicy;
+    private final BackendLatencies backendLatencies;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+    private final BackendPoolProperties poolProperties;
+    private final Map<CompanyKey, Mono<CachedCompany>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReactiveCompanyService(ReactiveBackendClients backendClients, CompanyService companyService, CompanyResponseParser responseParser,
+                                  MetricsService metricsService, CacheManager cacheManager, DiskCompanyCache diskCache,
+                                  CompanyCacheProperties cacheProperties,
+                                  CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads, RateLimiterRegistry rateLimiters,
+                                  RetryPolicy retryPolicy, BackendLatencies backendLatencies, AdaptiveTimeouts adaptiveTimeouts,
+                                  BackendPoolProperties poolProperties) {
+        this.backendClients = backendClients;
+        this.companyService = companyService;
+        this.responseParser = responseParser;
+        this.metricsService = metricsService;
+        this.companyCache = cacheManager.getCache("companyCache");
+        this.notFoundCache = cacheManager.getCache("companyNotFoundCache");
+        this.diskCache = diskCache;
+        this.softTtlMillis = cacheProperties.getSoftTtl().toMillis();
+        this.hardTtlMillis = cacheProperties.getHardTtl().toMillis();
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.rateLimiters = rateLimiters;
+        this.retryPolicy = retryPolicy;
+        this.backendLatencies = backendLatencies;
+        this.adaptiveTimeouts = adaptiveTimeouts;
+        this.poolProperties = poolProperties;
+    }
+
+    // Same flow as CompanyService.lookupCompany, every failure is delivered as an error signal
+    public Mono<CachedCompany> lookupCompany(String id, String countryIso, Deadline deadline) {
+        metricsService.incrementRequestCount();  // Count total requests
+
+        String backendUrl;
+        CompanyKey key;
+        try {
+            backendUrl = companyService.getBackendUrl(countryIso);
+            key = companyService.cacheKey(id, countryIso);
+        } catch (CountryNotFoundException e) {
+            return Mono.error(e);
+        }
+        companyService.recordAccess(key);
+
+        // A disk tier hit reads a mapped page, cheap enough to stay on the event loop
+        CachedCompany cached = companyCache.get(key, CachedCompany.class);
+        if (cached == null && (cached = diskCache.get(key)) != null) {
+            companyCache.put(key, cached);  // Back on the heap, the disk copy is replaced if it is pushed out again
+        }
+        if (cached != null) {
+            long age = cached.getAgeMillis(CoarseClock.currentTimeMillis());
+            if (age < hardTtlMillis) {
+                // Past the soft TTL, keep serving the cached reply while it is refreshed in the background
+                if (age >= softTtlMillis) {
+                    refreshInBackground(key, id, countryIso, backendUrl);
+                }
+                return Mono.just(cached);
+            }
+        }
+
+        // Companies the backend recently reported as unknown are not asked for again
+        if (notFoundCache.get(key) != null) {
+            metricsService.incrementNotFoundCacheHitCount();
+            return Mono.error(new CompanyNotFoundException("Company not found"));
+        }
+        metricsService.incrementNotFoundCacheMissCount();
+
+        if (deadline.isExpired()) {
+            metricsService.incrementDeadlineExceededCount();
+            return Mono.error(new DeadlineExceededException("SLA budget of " + deadline.getBudgetMillis() + " ms exhausted before calling backend"));
+        }
+        CachedCompany stale = cached;
+        return loadCompany(key, id, countryIso, backendUrl, deadline)
+                // Every caller gives up at its own deadline, the shared call goes on for the others
+                .timeout(Duration.ofMillis(Math.max(1, deadline.remainingMillis())), Mono.defer(() -> {
+                    metricsService.incrementDeadlineExceededCount();
+                    return Mono.error(new DeadlineExceededException("SLA budget of " + deadline.getBudgetMillis() + " ms exhausted waiting for backend"));
+                }))
+                // Within the grace window, a stale reply beats an error
+                .onErrorResume(e -> stale != null && (e instanceof BackendServerException || e instanceof ConnectivityTimeoutException), e -> {
+                    metricsService.incrementStaleServedCount();
+                    return Mono.just(stale);
+                });
+    }
+
+    // Concurrent cache misses for the same company share a single backend call
+    private Mono<CachedCompany> loadCompany(CompanyKey key, String id, String countryIso, String backendUrl, Deadline deadline) {
+        Mono<CachedCompany> shared = inFlight.get(key);
+        if (shared != null) {
+            metricsService.incrementCoalescedRequestCount();  // A backend call saved
+            return shared;
+        }
+        // cache() replays the outcome of the call to every caller that joins it. The breaker permission and the
+        // bulkhead slot are only taken once it is subscribed, a call that loses the race below holds neither.
+        AtomicReference<Mono<CachedCompany>> self = new AtomicReference<>();
+        Mono<CachedCompany> call = Mono.defer(() -> {
+                    metricsService.incrementBackendFetchCount();
+                    return callBackend(id, countryIso, backendUrl, deadline);
+                })
+                .doOnNext(company -> companyCache.put(key, company))
+                .doOnError(CompanyNotFoundException.class, e -> {
+                    companyCache.evict(key);  // The company is gone, stop serving it
+                    diskCache.evict(key);
+                    notFoundCache.put(key, Boolean.TRUE);
+                })
+                .doFinally(signal -> inFlight.remove(key, self.get()))  // Leaves a newer call for the same company alone
+                .cache();
+        self.set(call);
+        shared = inFlight.putIfAbsent(key, call);
+        if (shared != null) {
+            metricsService.incrementCoalescedRequestCount();
+            return shared;
+        }
+        return call;
+    }
+
+    private void refreshInBackground(CompanyKey key, String id, String countryIso, String backendUrl) {
+        if (inFlight.containsKey(key)) {
+            return;  // A refresh or a miss for this company is already running
+        }
+        loadCompany(key, id, countryIso, backendUrl, null).subscribe(
+                company -> metricsService.incrementCacheRefreshCount(),
+                // Keep the cached reply, the next read past the soft TTL tries again
+                e -> metricsService.incrementCacheRefreshErrorCount());
+    }
+
+    // Guards the backend call with the circuit breaker, the bulkhead and the retry budget of its country
+    private Mono<CachedCompany> callBackend(String id, String countryIso, String backendUrl, Deadline deadline) {
+        CircuitBreaker breaker = circuitBreakers.breakerFor(countryIso);
+        if (!breaker.tryAcquirePermission()) {
+            metricsService.incrementCircuitBreakerRejectionCount(countryIso);
+            return Mono.error(new BackendUnavailableException("Backend for country code " + countryIso + " is unavailable"));
+        }
+        // Waiting for a slot would park a request, the reactive stack rejects right away instead
+        Bulkhead bulkhead = bulkheads.bulkheadFor(countryIso);
+        if (!bulkhead.tryAcquireNow()) {
+            breaker.onIgnored();
+            metricsService.incrementBulkheadRejectionCount(countryIso);
+            return Mono.error(new BackendUnavailableException("Backend for country code " + countryIso + " has too many calls in flight"));
+        }
+
+        retryPolicy.onCall();
+        return Mono.defer(() -> fetchWithinRateLimit(id, countryIso, backendUrl, deadline))
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    Throwable failure = signal.failure();
+                    boolean retryable = failure instanceof BackendServerException || failure instanceof ConnectivityTimeoutException;
+                    long backoff = retryable ? retryPolicy.backoffMillis(countryIso, (int) signal.totalRetries() + 1, failure, deadline) : -1;
+                    if (backoff < 0) {
+                        return Mono.error(failure);
+                    }
+                    metricsService.incrementRetryCount(countryIso);
+                    return Mono.delay(Duration.ofMillis(backoff));
+                })))
+                .doOnNext(company -> breaker.onSuccess())
+                .doOnError(e -> {
+                    if (e instanceof RateLimitedException) {
+                        breaker.onIgnored();  // Held back on our side, the backend was not asked
+                    } else if (e instanceof BackendThrottledException) {
+                        breaker.onIgnored();  // The backend is up and asks for fewer calls, the rate limiter slows down
+                    } else if (e instanceof BackendServerException || e instanceof ConnectivityTimeoutException) {
+                        breaker.onFailure();
+                    } else {
+                        breaker.onSuccess();  // The backend answered, just not with a company
+                    }
+                })
+                .doOnCancel(breaker::onIgnored)
+                .doFinally(signal -> bulkhead.release());
+    }
+
+    // Every request to the backend waits for its turn, and throttling slows the backend's rate down
+    private Mono<CachedCompany> fetchWithinRateLimit(String id, String countryIso, String backendUrl, Deadline deadline) {
+        long wait = rateLimiters.reserve(countryIso, deadline);
+        if (wait < 0) {
+            return Mono.error(new RateLimitedException("Backend for country code " + countryIso + " is throttling requests"));
+        }
+        Mono<CachedCompany> fetch = Mono.defer(() -> fetchCompany(id, countryIso, backendUrl, deadline))
+                .doOnNext(company -> rateLimiters.onSuccess(countryIso))
+                .doOnError(BackendThrottledException.class, e -> rateLimiters.onThrottled(countryIso, e.getRetryAfterMillis()));
+        return wait > 0 ? Mono.delay(Duration.ofMillis(wait)).then(fetch) : fetch;
+    }
+
+    private Mono<CachedCompany> fetchCompany(String id, String countryIso, String backendUrl, Deadline deadline) {
+        long start = System.nanoTime();
+        return backendClients.clientFor(countryIso).get()
+                .uri(backendUrl + "/companies/{id}", id)
+                .exchangeToMono(this::toCompany)
+                .timeout(Duration.ofMillis(timeoutMillis(countryIso, deadline)))
+                .onErrorMap(e -> e instanceof TimeoutException || e instanceof WebClientRequestException, e -> {
+                    metricsService.incrementBackendErrorCount();
+                    if (deadline != null && deadline.isExpired()) {
+                        metricsService.incrementDeadlineExceededCount();
+                        return new DeadlineExceededException("SLA budget of " + deadline.getBudgetMillis() + " ms exhausted waiting for backend");
+                    }
+                    return new ConnectivityTimeoutException("Timeout or connectivity issue with backend: " + e.getMessage());
+                })
+                .doFinally(signal -> {
+                    if (signal != SignalType.CANCEL) {
+                        backendLatencies.record(countryIso, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                });
+    }
+
+    // Maps the backend reply the same way CompanyService maps RestTemplate's
+    private Mono<CachedCompany> toCompany(ClientResponse response) {
+        int status = response.rawStatusCode();
+        if (status == 404) {
+            return response.releaseBody().then(Mono.error(new CompanyNotFoundException("Company not found")));
+        }
+        if (status == 429 || status >= 500) {
+            metricsService.incrementBackendErrorCount();
+            long retryAfter = CompanyService.retryAfterMillis(response.headers().asHttpHeaders());
+            Throwable error = status == 429 || (status == 503 && retryAfter >= 0)
+                    ? new BackendThrottledException("Backend throttled: " + status, retryAfter)
+                    : new BackendServerException("Backend server error: " + status);
+            return response.releaseBody().then(Mono.error(error));
+        }
+        if (status >= 400) {
+            return response.releaseBody().then(Mono.error(new IllegalStateException("Unexpected backend status: " + status)));
+        }
+
+        MediaType contentType = response.headers().contentType().orElse(null);
+        if (contentType == null) {
+            return response.releaseBody().then(Mono.error(new IllegalStateException("Content Type is null")));
+        }
+        // The reply stays in the pooled buffers it arrived in and is parsed from there
+        return DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()))
+                .map(buffer -> buffer.asInputStream(true))
+                .defaultIfEmpty(InputStream.nullInputStream())
+                .flatMap(body -> {
+                    // Closing gives the buffers back to the pool, also when the parser rejects the reply unread
+                    try (InputStream in = body) {
+                        return Mono.just(responseParser.parse(contentType.toString(), in));
+                    } catch (UnexpectedContentTypeException | BackendResponseFormatException e) {
+                        return Mono.error(e);
+                    } catch (IOException e) {
+                        return Mono.error(new ConnectivityTimeoutException("Failed to read backend reply: " + e.getMessage()));
+                    }
+                });
+    }
+
+    // The backend's current timeout, capped by the remaining SLA budget
+    private long timeoutMillis(String countryIso, Deadline deadline) {
+        long timeout = poolProperties.settingsFor(countryIso).getTotalTimeout().toMillis();
+        long learned = adaptiveTimeouts.timeoutFor(countryIso);
+        if (learned > 0) {
+            timeout = Math.min(timeout, learned);
+        }
+        if (deadline != null) {
+            timeout = Math.min(timeout, deadline.remainingMillis());
+        }
+        return Math.max(1, timeout);
+    }
+}
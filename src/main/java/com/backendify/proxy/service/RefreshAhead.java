@@ -0,0 +1,103 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.cache.FrequencySketch;
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import com.backendify.proxy.resilience.Bulkhead;
+import com.backendify.proxy.resilience.BulkheadRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Decides which companies {@link CompanyService} refreshes ahead of their soft TTL: those read
+ * often enough to be hot, close enough to the soft TTL, and whose backend is quiet and has a
+ * refresh slot free. Hot companies then never miss, and their refreshes are spread out instead
+ * of all arriving when the soft TTL is reached.
+ */
+@Component
+@EnableConfigurationProperties(RefreshAheadProperties.class)
+public class RefreshAhead {
+
+    private final RefreshAheadProperties properties;
+    private final BulkheadRegistry bulkheads;
+    private volatile FrequencySketch sketch;
+    private final long refreshAfterMillis;
+    private final Set<CompanyKey> hotKeys = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, Semaphore> refreshSlots = Map.of();
+
+    @Autowired
+    public RefreshAhead(RefreshAheadProperties properties, CompanyCacheProperties cacheProperties, BulkheadRegistry bulkheads) {
+        this.properties = properties;
+        this.bulkheads = bulkheads;
+        this.sketch = new FrequencySketch(properties.getSketchWidth());
+        this.refreshAfterMillis = Math.max(0, cacheProperties.getSoftTtl().minus(properties.getLead()).toMillis());
+    }
+
+    // Gives every backend of the countryCode=backendUrl mappings its refresh slots. Keys of the previous
+    // mappings may stand for other countries now, so their counts are dropped.
+    public void register(Map<String, String> backendMappings) {
+        Map<String, Semaphore> slots = new HashMap<>();
+        backendMappings.keySet().forEach(countryCode -> slots.put(countryCode, new Semaphore(properties.getConcurrencyPerBackend())));
+        refreshSlots = slots;
+        sketch = new FrequencySketch(properties.getSketchWidth());
+        hotKeys.clear();
+    }
+
+    // Counts a read of the company, tracking it once it is hot
+    public void recordAccess(CompanyKey key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (sketch.increment(key.hashCode()) >= properties.getHotThreshold() && hotKeys.size() < properties.getMaxHotKeys()) {
+            hotKeys.add(key);
+        }
+    }
+
+    // The tracked companies that are still hot, dropping those that cooled down
+    public List<CompanyKey> hotKeys() {
+        List<CompanyKey> hot = new ArrayList<>(hotKeys.size());
+        for (CompanyKey key : hotKeys) {
+            if (sketch.frequency(key.hashCode()) >= properties.getHotThreshold()) {
+                hot.add(key);
+            } else {
+                hotKeys.remove(key);
+            }
+        }
+        return hot;
+    }
+
+    public boolean isDue(CachedCompany company, long now) {
+        return company.getAgeMillis(now) >= refreshAfterMillis;
+    }
+
+    // Takes a refresh slot of the backend, unless it is busy serving requests
+    public boolean tryAcquire(String countryCode) {
+        Semaphore slots = refreshSlots.get(countryCode);
+        Bulkhead bulkhead = bulkheads.bulkheadFor(countryCode);
+        if (slots == null || (bulkhead != null && bulkhead.getActiveCalls() >= bulkhead.getMaxConcurrentCalls() * properties.getQuietLoad())) {
+            return false;
+        }
+        return slots.tryAcquire();
+    }
+
+    public void release(String countryCode) {
+        Semaphore slots = refreshSlots.get(countryCode);
+        if (slots != null) {
+            slots.release();
+        }
+    }
+
+    public int hotKeyCount() {
+        return hotKeys.size();
+    }
+}
@@ -0,0 +1,82 @@
+package com.backendify.proxy.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Refresh-ahead of hot companies.
+ * <p>
+ * A company read at least {@code hot-threshold} times recently (out of 15, counts halve over
+ * time) is hot. Every {@code scan-interval-ms}, hot companies within {@code lead} of their soft
+ * TTL are fetched again in the background, at most {@code concurrency-per-backend} at a time per
+ * backend, and only while that backend's bulkhead is less than {@code quiet-load} busy. At most
+ * {@code max-hot-keys} companies are tracked, in a sketch of {@code sketch-width} counters per row.
+ */
+@ConfigurationProperties(prefix = "backendify.cache.refresh-ahead")
+public class RefreshAheadProperties {
+
+    private boolean enabled = true;
+    private int hotThreshold = 8;
+    private Duration lead = Duration.ofHours(5);
+    private int concurrencyPerBackend = 2;
+    private double quietLoad = 0.5;
+    private int maxHotKeys = 100_000;
+    private int sketchWidth = 1 << 18;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getHotThreshold() {
+        return hotThreshold;
+    }
+
+    public void setHotThreshold(int hotThreshold) {
+        this.hotThreshold = hotThreshold;
+    }
+
+    public Duration getLead() {
+        return lead;
+    }
+
+    public void setLead(Duration lead) {
+        this.lead = lead;
+    }
+
+    public int getConcurrencyPerBackend() {
+        return concurrencyPerBackend;
+    }
+
+    public void setConcurrencyPerBackend(int concurrencyPerBackend) {
+        this.concurrencyPerBackend = concurrencyPerBackend;
+    }
+
+    public double getQuietLoad() {
+        return quietLoad;
+    }
+
+    public void setQuietLoad(double quietLoad) {
+        this.quietLoad = quietLoad;
+    }
+
+    public int getMaxHotKeys() {
+        return maxHotKeys;
+    }
+
+    public void setMaxHotKeys(int maxHotKeys) {
+        this.maxHotKeys = maxHotKeys;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+}
@@ -0,0 +1,74 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.deadline.DeadlineContextHolder;
+import com.backendify.proxy.exception.ConnectivityTimeoutException;
+import com.backendify.proxy.exception.DeadlineExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight execution of backend calls: while a call for a key is in flight, other callers
+ * asking for the same key wait for it and share its result or error instead of calling again.
+ * <p>
+ * The first caller runs the call on its own thread. Waiters give up when their own deadline runs out.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MetricsService metricsService;
+
+    @Autowired
+    public RequestCoalescer(MetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    @FunctionalInterface
+    public interface Call<V> {
+        V call() throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Call<V> call) throws Throwable {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            metricsService.incrementCoalescedRequestCount();  // A backend call saved
+            return (V) await(existing);
+        }
+
+        try {
+            V value = call.call();
+            own.complete(value);
+            return value;
+        } catch (Throwable e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) throws Throwable {
+        Deadline deadline = DeadlineContextHolder.get();
+        try {
+            return deadline == null ? future.get() : future.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();  // Share the error raised by the call in flight
+        } catch (TimeoutException e) {
+            metricsService.incrementDeadlineExceededCount();
+            throw new DeadlineExceededException("SLA budget of " + deadline.getBudgetMillis() + " ms exhausted waiting for backend");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectivityTimeoutException("Interrupted while waiting for backend");
+        }
+    }
+}
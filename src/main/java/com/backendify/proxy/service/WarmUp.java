@@ -0,0 +1,143 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.client.BackendConnectionPools;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyJson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gets a starting instance ready for full traffic. It runs from the startup runner, so
+ * {@code /status} keeps answering 503 until every phase is done:
+ * <ol>
+ *     <li>{@code snapshot}: restores companyCache from its last snapshot</li>
+ *     <li>{@code connections}: opens keep-alive connections to every backend</li>
+ *     <li>{@code jit}: parses synthetic V1 and V2 replies and writes them back as JSON, until the
+ *     JIT has compiled that path</li>
+ *     <li>{@code preload}: looks up the companies listed in the preload file, if any</li>
+ * </ol>
+ * The duration of each phase is reported as {@code warmup.<phase>}.
+ */
+@Component
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class WarmUp {
+
+    private static final byte[] V1_REPLY = ("{\"cn\":\"Warm Up Ltd\",\"created_on\":\"2020-01-01T00:00:00Z\","
+            + "\"closed_on\":\"2030-06-01T12:00:00.123+02:00\"}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] V2_REPLY = ("{\"company_name\":\"Warm Up \\\"GmbH\\\"\",\"tin\":\"DE123456789\","
+            + "\"dissolved_on\":null}").getBytes(StandardCharsets.UTF_8);
+
+    private final WarmUpProperties properties;
+    private final CompanyCacheSnapshot cacheSnapshot;
+    private final BackendConnectionPools backendConnectionPools;
+    private final CompanyResponseParser responseParser;
+    private final CompanyService companyService;
+    private final MetricsService metricsService;
+
+    @Autowired
+    public WarmUp(WarmUpProperties properties, CompanyCacheSnapshot cacheSnapshot, BackendConnectionPools backendConnectionPools,
+                  CompanyResponseParser responseParser, CompanyService companyService, MetricsService metricsService) {
+        this.properties = properties;
+        this.cacheSnapshot = cacheSnapshot;
+        this.backendConnectionPools = backendConnectionPools;
+        this.responseParser = responseParser;
+        this.companyService = companyService;
+        this.metricsService = metricsService;
+    }
+
+    // Runs every phase once the backend mappings are known. Returns the duration of each phase, in order.
+    public Map<String, Long> run() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        // The snapshot is restored even with warm-up disabled, saving must not overwrite one that was never read
+        phase(phases, "snapshot", cacheSnapshot::load);
+        if (!properties.isEnabled()) {
+            return phases;
+        }
+        phase(phases, "connections", () -> backendConnectionPools.warmUp(properties.getConnectionsPerBackend()));
+        phase(phases, "jit", () -> exerciseParseAndSerialize(properties.getJitIterations()));
+        if (properties.getPreloadPath() != null && !properties.getPreloadPath().isEmpty()) {
+            phase(phases, "preload", this::preload);
+        }
+        return phases;
+    }
+
+    // Synthetic replies go through the parser uncounted, so they do not show up as backend traffic
+    int exerciseParseAndSerialize(int iterations) {
+        int bytes = 0;
+        long now = CoarseClock.currentTimeMillis();
+        for (int i = 0; i < iterations; i++) {
+            try {
+                CachedCompany v1 = responseParser.parse("application/x-company-v1", new ByteArrayInputStream(V1_REPLY), false);
+                CachedCompany v2 = responseParser.parse("application/x-company-v2", new ByteArrayInputStream(V2_REPLY), false);
+                bytes += CompanyJson.toJson("warm-up", v1, now).length + CompanyJson.toJson("warm-up", v2, now).length;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Warm-up reply failed to parse", e);  // A bug, not a backend problem
+            }
+        }
+        return bytes;
+    }
+
+    // Looks up every listed company, through the cache and the usual backend guards
+    private void preload() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(properties.getPreloadPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            metricsService.recordWarmUpPreload(0, 0);
+            return;
+        }
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getPreloadConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "warmup-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String line : lines) {
+            String[] fields = line.trim().split(",");
+            if (fields.length != 2 || fields[0].isEmpty() || fields[0].startsWith("#")) {
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    companyService.lookupCompany(fields[0].trim(), fields[1].trim());
+                    loaded.incrementAndGet();
+                } catch (Throwable e) {
+                    failed.incrementAndGet();  // Unknown companies and backend errors alike, traffic will retry
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(properties.getPreloadTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();  // Better partly preloaded than not ready
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        metricsService.recordWarmUpPreload(loaded.get(), failed.get());
+    }
+
+    private void phase(Map<String, Long> phases, String name, Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        metricsService.recordWarmUpPhase(name, millis);
+        phases.put(name, millis);
+    }
+}
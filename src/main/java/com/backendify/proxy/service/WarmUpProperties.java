@@ -0,0 +1,73 @@
+package com.backendify.proxy.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * What happens before {@code /status} reports ready.
+ * <p>
+ * {@code connections-per-backend} keep-alive connections are opened to every backend, and
+ * {@code jit-iterations} synthetic V1 and V2 replies are parsed and written back as JSON. With
+ * {@code preload-path} set, the companies listed in that file, one {@code id,country_iso} per
+ * line, are looked up with {@code preload-concurrency} lookups in flight, for at most
+ * {@code preload-timeout}.
+ */
+@ConfigurationProperties(prefix = "backendify.warmup")
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+    private int connectionsPerBackend = 4;
+    private int jitIterations = 20_000;  // Well past the C2 compile thresholds
+    private String preloadPath;  // No preload unless set
+    private int preloadConcurrency = 8;
+    private Duration preloadTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getConnectionsPerBackend() {
+        return connectionsPerBackend;
+    }
+
+    public void setConnectionsPerBackend(int connectionsPerBackend) {
+        this.connectionsPerBackend = connectionsPerBackend;
+    }
+
+    public int getJitIterations() {
+        return jitIterations;
+    }
+
+    public void setJitIterations(int jitIterations) {
+        this.jitIterations = jitIterations;
+    }
+
+    public String getPreloadPath() {
+        return preloadPath;
+    }
+
+    public void setPreloadPath(String preloadPath) {
+        this.preloadPath = preloadPath;
+    }
+
+    public int getPreloadConcurrency() {
+        return preloadConcurrency;
+    }
+
+    public void setPreloadConcurrency(int preloadConcurrency) {
+        this.preloadConcurrency = preloadConcurrency;
+    }
+
+    public Duration getPreloadTimeout() {
+        return preloadTimeout;
+    }
+
+    public void setPreloadTimeout(Duration preloadTimeout) {
+        this.preloadTimeout = preloadTimeout;
+    }
+}
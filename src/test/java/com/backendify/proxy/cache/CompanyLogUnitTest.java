@@ -0,0 +1,169 @@
+package com.backendify.proxy.cache;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompanyLogUnitTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+    private static final long LIFETIME = Duration.ofHours(25).toMillis();
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(1000).toMillis());
+    private CompanyLog log;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        log = new CompanyLog(directory, SEGMENT_BYTES, 4, 1024, LIFETIME, now::get);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        log.close();
+    }
+
+    @Test
+    public void whenStored_thenReadBackWithTheSameContent() {
+        long fetchedAt = now.get() - 1000;
+        assertTrue(log.put(key(0, "123"), CachedCompany.of("Backendify \"Ltd\"", 1_700_000_000_000L, fetchedAt)));
+        assertTrue(log.put(key(1, "123"), CachedCompany.of(null, CachedCompany.NO_CLOSURE, fetchedAt)));
+
+        CachedCompany company = log.get(key(0, "123"));
+        assertEquals("Backendify \"Ltd\"", company.getName());
+        assertEquals(1_700_000_000_000L, company.getActiveUntil());
+        assertEquals(fetchedAt, company.getFetchedAt());
+
+        CachedCompany unnamed = log.get(key(1, "123"));
+        assertNull(unnamed.getNameBytes());
+        assertEquals(CachedCompany.NO_CLOSURE, unnamed.getActiveUntil());
+
+        assertNull(log.get(key(0, "124")));
+        assertEquals(2, log.size());
+    }
+
+    @Test
+    public void whenStoredAgain_thenNewerRecordWins() {
+        log.put(key(0, "123"), CachedCompany.of("Old Name", CachedCompany.NO_CLOSURE, now.get()));
+        log.put(key(0, "123"), CachedCompany.of("New Name", CachedCompany.NO_CLOSURE, now.get()));
+
+        assertEquals("New Name", log.get(key(0, "123")).getName());
+        assertEquals(1, log.size());
+    }
+
+    @Test
+    public void whenRemoved_thenOtherKeysStayReachable() {
+        for (int i = 0; i < 150; i++) {
+            assertTrue(log.put(key(0, id(i)), CachedCompany.of("Company " + i, CachedCompany.NO_CLOSURE, now.get())));
+        }
+        for (int i = 0; i < 150; i += 2) {
+            log.remove(key(0, id(i)));
+        }
+
+        for (int i = 0; i < 150; i++) {
+            CachedCompany company = log.get(key(0, id(i)));
+            if (i % 2 == 0) {
+                assertNull(company);
+            } else {
+                assertEquals("Company " + i, company.getName());
+            }
+        }
+        assertEquals(75, log.size());
+    }
+
+    @Test
+    public void whenPastItsLifetime_thenNotServed() {
+        log.put(key(0, "123"), CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, now.get()));
+        now.addAndGet(LIFETIME);
+
+        assertNull(log.get(key(0, "123")));
+        assertFalse(log.put(key(0, "124"), CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, now.get() - LIFETIME)));
+    }
+
+    @Test
+    public void whenSegmentsFillUp_thenCompactionMakesRoomAndKeepsLiveEntries() {
+        // 48-byte records: the three usable segments hold 255 of them, the fourth is kept for compaction
+        int stored = 0;
+        while (log.put(key(0, id(stored)), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get()))) {
+            stored++;
+        }
+        assertEquals(3 * (SEGMENT_BYTES / 48), stored);
+        assertEquals(1, log.freeSegments());
+
+        // Only the first ten companies of the oldest segment are still live
+        for (int i = 10; i < 85; i++) {
+            log.remove(key(0, id(i)));
+        }
+        assertEquals(10, log.compact());
+
+        for (int i = 0; i < stored; i++) {
+            CachedCompany company = log.get(key(0, id(i)));
+            if (i >= 10 && i < 85) {
+                assertNull(company);
+            } else {
+                assertEquals("Name", company.getName());
+            }
+        }
+        assertTrue(log.put(key(0, id(stored)), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get())));
+    }
+
+    @Test
+    public void whenCompacting_thenExpiredEntriesAreDropped() {
+        int stored = 0;
+        while (log.put(key(0, id(stored)), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get() - LIFETIME + 1000))) {
+            stored++;
+        }
+        now.addAndGet(1000);
+
+        assertEquals(0, log.compact());
+        assertEquals(stored - SEGMENT_BYTES / 48, log.size());
+        assertEquals(2, log.freeSegments());
+        assertEquals(0, log.compact());  // Enough room, nothing to do
+    }
+
+    @Test
+    public void whenIndexIsFull_thenNewKeysAreRefused() throws IOException {
+        log.close();
+        log = new CompanyLog(directory, SEGMENT_BYTES, 4, 8, LIFETIME, now::get);
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(log.put(key(0, id(i)), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get())));
+        }
+        assertFalse(log.put(key(0, id(6)), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get())));
+        assertTrue(log.put(key(0, id(0)), CachedCompany.of("Renamed", CachedCompany.NO_CLOSURE, now.get())));
+        assertEquals("Renamed", log.get(key(0, id(0))).getName());
+    }
+
+    @Test
+    public void whenClosed_thenFilesAreDeleted() throws IOException {
+        log.put(key(0, "123"), CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, now.get()));
+
+        log.close();
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    // Same length for every id, so every record takes 48 bytes
+    private static String id(int i) {
+        return String.format("id%04d", i);
+    }
+
+    private static CompanyKey key(int countryIndex, String id) {
+        return new CompanyKey((short) countryIndex, id);
+    }
+}
@@ -0,0 +1,53 @@
+package com.backendify.proxy.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrequencySketchUnitTest {
+
+    @Test
+    public void whenIncremented_thenCountedUpToTheMaximum() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+
+        for (int i = 1; i <= 20; i++) {
+            assertEquals(Math.min(i, 15), sketch.increment(42));
+        }
+        assertEquals(15, sketch.frequency(42));
+        assertEquals(0, sketch.frequency(43));
+    }
+
+    @Test
+    public void whenManyKeysAreCounted_thenHotKeysStandOut() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+
+        for (int i = 0; i < 500; i++) {
+            sketch.increment(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(-1);
+        }
+
+        assertTrue(sketch.frequency(-1) >= 10);
+        int overcounted = 0;
+        for (int i = 0; i < 500; i++) {
+            overcounted += sketch.frequency(i) > 1 ? 1 : 0;
+        }
+        assertTrue(overcounted < 25, "overcounted " + overcounted);
+    }
+
+    @Test
+    public void whenSampleIsFull_thenCountsAreHalved() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 12; i++) {
+            sketch.increment(7);
+        }
+
+        // 160 increments in all, the last one ages the sketch
+        for (int i = 0; i < 148; i++) {
+            sketch.increment(1000 + i % 4);
+        }
+
+        assertEquals(6, sketch.frequency(7));
+    }
+}
@@ -0,0 +1,90 @@
+package com.backendify.proxy.cache;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapCompanyCacheUnitTest {
+
+    private static final long LIFETIME = Duration.ofHours(25).toMillis();
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(1000).toMillis());
+    // 48-byte records, 85 per segment
+    private final OffHeapCompanyCache cache = new OffHeapCompanyCache("companyCache", new CompanyLog(4096, 3, 1024, LIFETIME, now::get));
+
+    @Test
+    public void whenStored_thenServedThroughTheCacheInterface() {
+        cache.put(key(0), CachedCompany.of("Name", 1_700_000_000_000L, now.get()));
+
+        CachedCompany company = cache.get(key(0), CachedCompany.class);
+        assertEquals("Name", company.getName());
+        assertEquals(1_700_000_000_000L, company.getActiveUntil());
+        assertNull(cache.get(key(1)));
+
+        cache.evict(key(0));
+        assertNull(cache.get(key(0)));
+    }
+
+    @Test
+    public void whenBudgetIsUsedUp_thenOldestSegmentIsEvicted() {
+        for (int i = 0; i < 3 * 85; i++) {
+            cache.put(key(i), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get()));
+        }
+        assertEquals(3 * 85, cache.getNativeCache().size());
+
+        cache.put(key(3 * 85), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get()));
+
+        assertNull(cache.get(key(0)));
+        assertNull(cache.get(key(84)));
+        assertNotNull(cache.get(key(85)));
+        assertNotNull(cache.get(key(3 * 85)));
+        assertEquals(2 * 85 + 1, cache.getNativeCache().size());
+        assertEquals(85, cache.getNativeCache().evictedCount());
+    }
+
+    @Test
+    public void whenReplyCannotBeStored_thenOlderCopyIsDropped() {
+        cache.put(key(0), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get()));
+
+        cache.put(key(0), CachedCompany.of("x".repeat(5000), CachedCompany.NO_CLOSURE, now.get()));
+
+        assertNull(cache.get(key(0)));
+    }
+
+    @Test
+    public void whenCleared_thenEmpty() {
+        cache.put(key(0), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get()));
+
+        cache.clear();
+
+        assertNull(cache.get(key(0)));
+        assertEquals(0, cache.getNativeCache().size());
+        cache.put(key(1), CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get()));
+        assertNotNull(cache.get(key(1)));
+    }
+
+    @Test
+    public void whenKeyOrValueIsNotACompany_thenRejected() {
+        assertThrows(IllegalArgumentException.class, () -> cache.put("123", CachedCompany.of("Name", CachedCompany.NO_CLOSURE, now.get())));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(key(0), Boolean.TRUE));
+    }
+
+    @Test
+    public void whenSizedFromBudget_thenStaysWithinIt() {
+        long budget = 8 * 1024 * 1024;
+        OffHeapCompanyCache sized = OffHeapCompanyCache.withBudget("companyCache", budget, 1024 * 1024, LIFETIME, now::get);
+
+        assertTrue(sized.getNativeCache().capacityBytes() <= budget);
+        assertEquals(1 << 17, (sized.getNativeCache().capacityBytes() - 6L * 1024 * 1024) / CompanyLog.SLOT_BYTES);
+        assertThrows(IllegalArgumentException.class, () -> OffHeapCompanyCache.withBudget("companyCache", budget, 8 * 1024 * 1024, LIFETIME, now::get));
+    }
+
+    private static CompanyKey key(int i) {
+        return new CompanyKey((short) 0, String.format("id%04d", i));
+    }
+}
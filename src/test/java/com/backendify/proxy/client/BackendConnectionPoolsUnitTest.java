@@ -0,0 +1,109 @@
+package com.backendify.proxy.client;
+
+import com.backendify.proxy.resilience.AdaptiveTimeouts;
+import com.backendify.proxy.service.MetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+public class BackendConnectionPoolsUnitTest {
+
+    private MetricsService metricsService;
+    private AdaptiveTimeouts adaptiveTimeouts;
+    private BackendConnectionPools pools;
+
+    @BeforeEach
+    public void setUp() {
+        BackendPoolProperties properties = new BackendPoolProperties();
+        BackendPoolProperties.Settings ruSettings = new BackendPoolProperties.Settings();
+        ruSettings.setMaxConnections(5);
+        properties.getCountries().put("ru", ruSettings);
+
+        metricsService = Mockito.mock(MetricsService.class);
+        adaptiveTimeouts = Mockito.mock(AdaptiveTimeouts.class);
+        Mockito.when(adaptiveTimeouts.timeoutFor(Mockito.anyString())).thenReturn(-1L);
+        pools = new BackendConnectionPools(properties, metricsService, adaptiveTimeouts);
+        pools.register(Map.of(
+                "us", "http://localhost:9001",
+                "ru", "http://localhost:9002"
+        ));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pools.destroy();
+    }
+
+    @Test
+    public void whenRequestTargetsRegisteredBackend_thenUsesCountryPool() {
+        BackendPool pool = pools.poolFor("us");
+
+        assertEquals("us", pool.getCountry());
+        assertEquals(64, pool.getSettings().getMaxConnections());
+    }
+
+    @Test
+    public void whenCountryHasOverrides_thenPoolUsesThem() {
+        BackendPool pool = pools.poolFor("ru");
+
+        assertEquals("ru", pool.getCountry());
+        assertEquals(5, pool.getSettings().getMaxConnections());
+        assertEquals(5, pool.getPoolStats().getMax());
+    }
+
+    @Test
+    public void whenRequestTargetsUnknownCountry_thenUsesDefaultPool() {
+        assertEquals("default", pools.poolFor("fr").getCountry());
+        assertEquals("default", pools.poolFor(null).getCountry());
+    }
+
+    @Test
+    public void whenCountriesShareABackend_thenEachKeepsItsOwnPoolAndSettings() {
+        pools.register(Map.of(
+                "us", "http://localhost:9001",
+                "ru", "http://localhost:9001"
+        ));
+
+        assertEquals("us", pools.poolFor("us").getCountry());
+        assertEquals(64, pools.poolFor("us").getSettings().getMaxConnections());
+        assertEquals("ru", pools.poolFor("ru").getCountry());
+        assertEquals(5, pools.poolFor("ru").getSettings().getMaxConnections());
+        assertEquals("http://localhost:9001", pools.poolFor("ru").getOrigin());
+    }
+
+    @Test
+    public void whenPublishingStats_thenEveryPoolIsReported() {
+        pools.publishPoolStats();
+
+        verify(metricsService).recordPoolStats(eq("us"), anyInt(), anyInt(), anyInt(), eq(64), anyLong(), anyLong());
+        verify(metricsService).recordPoolStats(eq("ru"), anyInt(), anyInt(), anyInt(), eq(5), anyLong(), anyLong());
+        verify(metricsService).recordPoolStats(eq("default"), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void whenNothingLearnedYet_thenConfiguredTimeoutApplies() {
+        assertEquals(900, pools.poolFor("us").getTimeoutMillis());
+        assertEquals(Map.of("us", 900L, "ru", 900L), pools.currentTimeouts());
+    }
+
+    @Test
+    public void whenTimeoutLearned_thenItAppliesUpToTheConfiguredOne() {
+        Mockito.when(adaptiveTimeouts.timeoutFor("us")).thenReturn(150L);
+        Mockito.when(adaptiveTimeouts.timeoutFor("ru")).thenReturn(5000L);
+
+        assertEquals(150, pools.poolFor("us").getTimeoutMillis());
+        assertEquals(900, pools.poolFor("ru").getTimeoutMillis());
+
+        pools.publishPoolStats();
+        verify(metricsService).recordBackendTimeout("us", 150);
+    }
+}
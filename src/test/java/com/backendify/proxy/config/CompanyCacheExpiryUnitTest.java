@@ -0,0 +1,45 @@
+package com.backendify.proxy.config;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompanyCacheExpiryUnitTest {
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(1000).toMillis());
+    private final CompanyCacheExpiry expiry = new CompanyCacheExpiry(Duration.ofHours(25), now::get);
+    private final CompanyKey key = new CompanyKey((short) 0, "123");
+
+    @Test
+    public void whenEntryIsFresh_thenLivesForTheWholeLifetime() {
+        CachedCompany fresh = CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, now.get());
+
+        assertEquals(TimeUnit.HOURS.toNanos(25), expiry.expireAfterCreate(key, fresh, 0));
+    }
+
+    @Test
+    public void whenEntryWasFetchedEarlier_thenLivesForWhatIsLeft() {
+        CachedCompany restored = CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, now.get() - Duration.ofHours(20).toMillis());
+
+        assertEquals(TimeUnit.HOURS.toNanos(5), expiry.expireAfterCreate(key, restored, 0));
+        assertEquals(TimeUnit.HOURS.toNanos(5), expiry.expireAfterUpdate(key, restored, 0, TimeUnit.HOURS.toNanos(1)));
+    }
+
+    @Test
+    public void whenEntryIsPastItsLifetime_thenExpiresRightAway() {
+        CachedCompany expired = CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, now.get() - Duration.ofHours(26).toMillis());
+
+        assertEquals(0, expiry.expireAfterCreate(key, expired, 0));
+    }
+
+    @Test
+    public void whenEntryIsRead_thenItsLifeIsNotExtended() {
+        assertEquals(42, expiry.expireAfterRead(key, Boolean.TRUE, 0, 42));
+    }
+}
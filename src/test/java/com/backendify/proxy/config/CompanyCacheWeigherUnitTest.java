@@ -0,0 +1,38 @@
+package com.backendify.proxy.config;
+
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompanyCacheWeigherUnitTest {
+
+    private final CompanyCacheWeigher weigher = new CompanyCacheWeigher();
+
+    @Test
+    public void whenWeighingEntry_thenKeyAndValueAreCounted() {
+        CompanyKey key = new CompanyKey((short) 0, "123");
+        CachedCompany cached = CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, 0L);
+
+        int weight = weigher.weigh(key, cached);
+
+        assertTrue(CompanyCacheWeigher.sizeOf(key) > CompanyCacheWeigher.sizeOf("123"));
+        assertEquals(weight, CompanyCacheWeigher.ENTRY_OVERHEAD + CompanyCacheWeigher.sizeOf(key) + CompanyCacheWeigher.sizeOf(cached));
+    }
+
+    @Test
+    public void whenNameIsLonger_thenEntryWeighsMore() {
+        CompanyKey key = new CompanyKey((short) 0, "123");
+        CachedCompany shortName = CachedCompany.of("A", CachedCompany.NO_CLOSURE, 0L);
+        CachedCompany longName = CachedCompany.of("A".repeat(200), CachedCompany.NO_CLOSURE, 0L);
+
+        assertTrue(weigher.weigh(key, longName) - weigher.weigh(key, shortName) >= 192);
+    }
+
+    @Test
+    public void whenSizingString_thenAlignedToEightBytes() {
+        assertEquals(0, CompanyCacheWeigher.sizeOf((String) null));
+        assertEquals(0, CompanyCacheWeigher.sizeOf("abc") % 8);
+    }
+}
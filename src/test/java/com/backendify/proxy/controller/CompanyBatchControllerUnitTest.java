@@ -0,0 +1,71 @@
+package com.backendify.proxy.controller;
+
+import com.backendify.proxy.application.Application;
+import com.backendify.proxy.exception.*;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.service.CompanyService;
+import com.backendify.proxy.service.MetricsService;
+import com.timgroup.statsd.StatsDClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Application.class, properties = "backendify.batch.max-items=3")
+@AutoConfigureMockMvc
+@ComponentScan(basePackages = "com.backendify.proxy")
+public class CompanyBatchControllerUnitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CompanyService companyService;
+
+    @MockBean
+    private MetricsService metricsService;
+
+    @MockBean
+    private StatsDClient statsDClient;
+
+    @Test
+    public void whenBatchLookedUp_thenOneLinePerCompanyWithItsStatus() throws Exception, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException, UnexpectedContentTypeException, BackendResponseFormatException {
+        CachedCompany company = CachedCompany.of("Company1", CachedCompany.NO_CLOSURE, System.currentTimeMillis());
+        Mockito.when(companyService.lookupCachedCompany("123", "us")).thenReturn(company);
+        Mockito.when(companyService.getBackendUrl("us")).thenReturn("http://localhost:9001");
+        Mockito.when(companyService.fetchCompany(Mockito.eq("456"), Mockito.eq("us"), any()))
+                .thenThrow(new BackendServerException("Backend server error"));
+
+        MvcResult result = mockMvc.perform(post("/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":\"123\",\"country_iso\":\"us\"},{\"id\":\"456\",\"country_iso\":\"us\"}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"index\":0,\"status\":200,\"company\":{\"id\":\"123\",\"name\":\"Company1\",\"active\":true}}\n"
+                        + "{\"index\":1,\"status\":500,\"error\":\"Backend server error\"}\n"));
+    }
+
+    @Test
+    public void whenBatchIsTooLarge_thenReturns413() throws Exception {
+        mockMvc.perform(post("/companies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":\"1\",\"country_iso\":\"us\"},{\"id\":\"2\",\"country_iso\":\"us\"},"
+                                + "{\"id\":\"3\",\"country_iso\":\"us\"},{\"id\":\"4\",\"country_iso\":\"us\"}]"))
+                .andExpect(status().isPayloadTooLarge());
+    }
+}
@@ -2,7 +2,7 @@ package com.backendify.proxy.controller;
 
 import com.backendify.proxy.application.Application;
 import com.backendify.proxy.exception.*;
-import com.backendify.proxy.model.CompanyResponse;
+import com.backendify.proxy.model.CachedCompany;
 import com.backendify.proxy.service.CompanyService;
 import com.backendify.proxy.service.MetricsService;
 import com.timgroup.statsd.StatsDClient;
@@ -41,11 +41,13 @@ public class CompanyControllerUnitTest {
     //Test for successful retrieval response (200 OK)
     @Test
     public void whenGetCompany_thenReturns200() throws Exception, BackendResponseFormatException, CompanyNotFoundException, BackendServerException, ConnectivityTimeoutException, CountryNotFoundException {
-        CompanyResponse mockResponse = new CompanyResponse("123", "Company1", true, null);
-        Mockito.when(companyService.getCompany("123", "us")).thenReturn(mockResponse);
+        CachedCompany mockResponse = CachedCompany.of("Company1", CachedCompany.NO_CLOSURE, System.currentTimeMillis());
+        Mockito.when(companyService.lookupCompany("123", "us")).thenReturn(mockResponse);
 
         mockMvc.perform(get("/company?id=123&country_iso=us"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().longValue("Content-Length", 44))
                 .andExpect(jsonPath("$.id").value("123"))
                 .andExpect(jsonPath("$.name").value("Company1"))
                 .andExpect(jsonPath("$.active").value(true));
@@ -56,7 +58,7 @@ public class CompanyControllerUnitTest {
     public void whenCompanyNotFound_thenReturns404() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
         // Simulate CompanyNotFoundException
         doThrow(new CompanyNotFoundException("Company not found"))
-                .when(companyService).getCompany(anyString(), anyString());
+                .when(companyService).lookupCompany(anyString(), anyString());
 
         mockMvc.perform(get("/company")
                         .param("id", "123")
@@ -71,7 +73,7 @@ public class CompanyControllerUnitTest {
     public void whenBackendServerError_thenReturns500() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
         // Simulate BackendServerException
         doThrow(new BackendServerException("Backend server error"))
-                .when(companyService).getCompany(anyString(), anyString());
+                .when(companyService).lookupCompany(anyString(), anyString());
 
         mockMvc.perform(get("/company")
                         .param("id", "123")
@@ -86,7 +88,7 @@ public class CompanyControllerUnitTest {
     public void whenConnectivityTimeout_thenReturns504() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
         // Simulate ConnectivityTimeoutException
         doThrow(new ConnectivityTimeoutException("Timeout or connectivity issue"))
-                .when(companyService).getCompany(anyString(), anyString());
+                .when(companyService).lookupCompany(anyString(), anyString());
 
         mockMvc.perform(get("/company")
                         .param("id", "123")
@@ -96,12 +98,42 @@ public class CompanyControllerUnitTest {
                 .andExpect(content().string("Timeout or connectivity issue"));
     }
 
+    // Test for DeadlineExceededException (504 Gateway Timeout)
+    @Test
+    public void whenDeadlineExceeded_thenReturns504() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        // Simulate the SLA budget running out
+        doThrow(new DeadlineExceededException("SLA budget of 900 ms exhausted"))
+                .when(companyService).lookupCompany(anyString(), anyString());
+
+        mockMvc.perform(get("/company")
+                        .param("id", "123")
+                        .param("country_iso", "us")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGatewayTimeout())  // Expect 504 Gateway Timeout
+                .andExpect(content().string("SLA budget of 900 ms exhausted"));
+    }
+
+    // Test for BackendUnavailableException (503 Service Unavailable)
+    @Test
+    public void whenBackendUnavailable_thenReturns503() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        // Simulate the circuit breaker of the backend being open
+        doThrow(new BackendUnavailableException("Backend for country code us is unavailable"))
+                .when(companyService).lookupCompany(anyString(), anyString());
+
+        mockMvc.perform(get("/company")
+                        .param("id", "123")
+                        .param("country_iso", "us")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())  // Expect 503 Service Unavailable
+                .andExpect(content().string("Backend for country code us is unavailable"));
+    }
+
     // Test for UnexpectedContentTypeException (415 Unsupported Media Type)
     @Test
     public void whenUnexpectedContentType_thenReturns415() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
         // Simulate UnexpectedContentTypeException
         doThrow(new UnexpectedContentTypeException("Unsupported content type"))
-                .when(companyService).getCompany(anyString(), anyString());
+                .when(companyService).lookupCompany(anyString(), anyString());
 
         mockMvc.perform(get("/company")
                         .param("id", "123")
@@ -116,7 +148,7 @@ public class CompanyControllerUnitTest {
     public void whenBackendResponseFormatError_thenReturns502() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
         // Simulate BackendResponseFormatException
         doThrow(new BackendResponseFormatException("Backend response format error"))
-                .when(companyService).getCompany(anyString(), anyString());
+                .when(companyService).lookupCompany(anyString(), anyString());
 
         mockMvc.perform(get("/company")
                         .param("id", "123")
@@ -131,7 +163,7 @@ public class CompanyControllerUnitTest {
     public void whenCountryNotFound_thenReturns404() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
         // Simulate CompanyNotFoundException
         doThrow(new CountryNotFoundException("Country not found"))
-                .when(companyService).getCompany(anyString(), anyString());
+                .when(companyService).lookupCompany(anyString(), anyString());
 
         mockMvc.perform(get("/company")
                         .param("id", "123")
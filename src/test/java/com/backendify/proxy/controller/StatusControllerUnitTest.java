@@ -4,13 +4,18 @@ import com.backendify.proxy.application.Application;
 import com.backendify.proxy.service.MetricsService;
 import com.timgroup.statsd.StatsDClient;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -36,4 +41,14 @@ public class StatusControllerUnitTest {
                 .andExpect(status().isOk())  // Verify HTTP 200 OK status
                 .andExpect(content().string("Service is running"));  // Verify response content
     }
+
+    @Test
+    public void whenApplicationIsNotReadyYet_thenReturns503() {
+        ApplicationAvailability availability = Mockito.mock(ApplicationAvailability.class);
+        Mockito.when(availability.getReadinessState()).thenReturn(ReadinessState.REFUSING_TRAFFIC);
+
+        ResponseEntity<String> response = new StatusController(availability).getStatus();
+
+        assertEquals(503, response.getStatusCodeValue());
+    }
 }
@@ -0,0 +1,36 @@
+package com.backendify.proxy.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineUnitTest {
+
+    @Test
+    public void whenBudgetRemains_thenNotExpired() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remainingMillis() > 9000);
+        assertEquals(10000, deadline.getBudgetMillis());
+    }
+
+    @Test
+    public void whenBudgetIsSpent_thenExpiredWithNoTimeRemaining() {
+        Deadline deadline = Deadline.after(Duration.ZERO);
+
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+    }
+
+    @Test
+    public void whenHolderIsReset_thenNoDeadlineIsBound() {
+        DeadlineContextHolder.set(Deadline.after(Duration.ofSeconds(1)));
+        assertNotNull(DeadlineContextHolder.get());
+
+        DeadlineContextHolder.reset();
+        assertNull(DeadlineContextHolder.get());
+    }
+}
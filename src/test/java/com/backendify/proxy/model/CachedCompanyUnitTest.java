@@ -0,0 +1,47 @@
+package com.backendify.proxy.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedCompanyUnitTest {
+
+    @Test
+    public void whenCompanyHasNoClosure_thenActiveWithoutActiveUntil() {
+        CachedCompany cached = CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, 0L);
+
+        CompanyResponse response = cached.toResponse("123", System.currentTimeMillis());
+
+        assertEquals("123", response.getId());
+        assertEquals("Backendify Ltd", response.getName());
+        assertTrue(response.isActive());
+        assertNull(response.getActiveUntil());
+    }
+
+    @Test
+    public void whenClosureHasPassed_thenInactiveWithUtcActiveUntil() {
+        long closedOn = Instant.parse("2022-01-28T00:00:00Z").toEpochMilli();
+        CachedCompany cached = CachedCompany.of("Backendify Ltd", closedOn, 0L);
+
+        CompanyResponse response = cached.toResponse("123", closedOn);
+
+        assertFalse(response.isActive());
+        assertEquals("2022-01-28T00:00:00Z", response.getActiveUntil());
+    }
+
+    @Test
+    public void whenNameIsNotAscii_thenRoundTripsThroughUtf8() {
+        CachedCompany cached = CachedCompany.of("Бэкендифай ООО", CachedCompany.NO_CLOSURE, 0L);
+
+        assertEquals("Бэкендифай ООО", cached.getName());
+    }
+
+    @Test
+    public void whenKeysHaveSameCountryAndId_thenEqual() {
+        assertEquals(new CompanyKey((short) 1, "123"), new CompanyKey((short) 1, "123"));
+        assertEquals(new CompanyKey((short) 1, "123").hashCode(), new CompanyKey((short) 1, "123").hashCode());
+        assertNotEquals(new CompanyKey((short) 1, "123"), new CompanyKey((short) 2, "123"));
+    }
+}
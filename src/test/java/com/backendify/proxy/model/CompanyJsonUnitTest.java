@@ -0,0 +1,51 @@
+package com.backendify.proxy.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompanyJsonUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void whenCompanyIsActive_thenMatchesJacksonOutput() throws Exception {
+        long now = System.currentTimeMillis();
+        CachedCompany company = CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, now);
+
+        assertSameAsJackson("123", company, now);
+    }
+
+    @Test
+    public void whenCompanyIsClosed_thenMatchesJacksonOutput() throws Exception {
+        long closedOn = Instant.parse("2022-01-28T00:00:00Z").toEpochMilli();
+        CachedCompany company = CachedCompany.of("Backendify Ltd", closedOn, 0L);
+
+        assertSameAsJackson("123", company, System.currentTimeMillis());
+    }
+
+    @Test
+    public void whenNameAndIdNeedEscaping_thenMatchesJacksonOutput() throws Exception {
+        CachedCompany company = CachedCompany.of("\"Quoted\" \\ Ltd\n\u0001 Ünïcödé", CachedCompany.NO_CLOSURE, 0L);
+
+        assertSameAsJackson("id \"with\" quotes", company, System.currentTimeMillis());
+        assertEquals("\"Quoted\" \\ Ltd\n\u0001 Ünïcödé", company.getName());
+    }
+
+    @Test
+    public void whenNameIsMissing_thenNameIsLeftOut() throws Exception {
+        CachedCompany company = CachedCompany.of(null, CachedCompany.NO_CLOSURE, 0L);
+
+        assertSameAsJackson("123", company, System.currentTimeMillis());
+    }
+
+    private void assertSameAsJackson(String id, CachedCompany company, long now) throws Exception {
+        String expected = objectMapper.writeValueAsString(company.toResponse(id, now));
+        String actual = new String(CompanyJson.toJson(id, company, now), StandardCharsets.UTF_8);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,76 @@
+package com.backendify.proxy.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Rfc3339UnitTest {
+
+    @Test
+    public void whenTimestampIsValid_thenMatchesJavaTime() {
+        String[] timestamps = {
+                "2022-01-28T00:00:00Z",
+                "2020-02-29T23:59:59.999+14:00",
+                "1969-12-31T23:59:59.5-05:30",
+                "2021-06-01T12:30:00.123456789+02:00",
+                "0001-01-01T00:00:00Z",
+        };
+        for (String timestamp : timestamps) {
+            long expected = OffsetDateTime.parse(timestamp, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+            assertEquals(expected, parse(timestamp), timestamp);
+        }
+    }
+
+    @Test
+    public void whenSeparatorsAreLowerCase_thenParses() {
+        assertEquals(Instant.parse("2022-01-28T10:00:00Z").toEpochMilli(), parse("2022-01-28t10:00:00z"));
+    }
+
+    @Test
+    public void whenTimestampIsInvalid_thenReturnsInvalid() {
+        String[] timestamps = {
+                "",
+                "not a timestamp",
+                "2021-02-29T00:00:00Z",  // Not a leap year
+                "2020-04-31T00:00:00Z",
+                "2020-13-01T00:00:00Z",
+                "2020-01-01T24:00:00Z",
+                "2020-01-01T00:00:60Z",
+                "2020-01-01T00:00Z",  // Seconds are required
+                "2020-01-01T00:00:00",  // So is the offset
+                "2020-01-01 00:00:00Z",
+                "2020-01-01T00:00:00.Z",
+                "2020-01-01T00:00:00.1234567890Z",
+                "2020-01-01T00:00:00+0100",
+                "2020-01-01T00:00:00+01:00:00",
+                "2020-01-01T00:00:00Z ",
+        };
+        for (String timestamp : timestamps) {
+            assertEquals(Rfc3339.INVALID, parse(timestamp), timestamp);
+        }
+    }
+
+    @Test
+    public void whenParsingPartOfABuffer_thenOnlyThatPartIsRead() {
+        char[] buffer = "xx\"2022-01-28T00:00:00Z\"yy".toCharArray();
+
+        assertEquals(Instant.parse("2022-01-28T00:00:00Z").toEpochMilli(), Rfc3339.parseEpochMillis(buffer, 3, 20));
+    }
+
+    @Test
+    public void whenFormatting_thenMatchesInstantToString() {
+        long[] millis = {0, -1, 1_643_328_000_000L, 1_643_328_000_120L, 951_782_400_000L, -62_135_596_800_000L, 253_402_300_800_000L};
+        for (long value : millis) {
+            assertEquals(Instant.ofEpochMilli(value).toString(), new String(Rfc3339.formatUtc(value), StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static long parse(String timestamp) {
+        return Rfc3339.parseEpochMillis(timestamp.toCharArray(), 0, timestamp.length());
+    }
+}
@@ -0,0 +1,120 @@
+package com.backendify.proxy.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveRateLimiterUnitTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private AdaptiveRateLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxRate(100);
+        properties.setMinRate(1);
+        properties.setDecreaseFactor(0.5);
+        properties.setAdditiveIncrease(10);
+        properties.setAdjustInterval(Duration.ofSeconds(1));
+        properties.setBurst(Duration.ofMillis(100));
+        limiter = new AdaptiveRateLimiter("us", properties, now::get);
+    }
+
+    @Test
+    public void whenWithinBurst_thenCallsGoThroughRightAway() {
+        // 100 requests per second with a 100 ms burst
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.reserve(0));
+        }
+        assertEquals(-1, limiter.reserve(0));
+        assertEquals(10, limiter.reserve(50));
+    }
+
+    @Test
+    public void whenThrottled_thenRateIsCutOncePerInterval() {
+        limiter.onThrottled(-1);
+        limiter.onThrottled(-1);
+
+        assertEquals(50, limiter.getRate());
+
+        now.addAndGet(1000);
+        limiter.onThrottled(-1);
+        assertEquals(25, limiter.getRate());
+    }
+
+    @Test
+    public void whenBackendRecovers_thenRateGrowsBackStepByStep() {
+        limiter.onThrottled(-1);
+
+        now.addAndGet(500);
+        limiter.onSuccess();
+        assertEquals(50, limiter.getRate());
+
+        now.addAndGet(500);
+        limiter.onSuccess();
+        assertEquals(60, limiter.getRate());
+
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(1000);
+            limiter.onSuccess();
+        }
+        assertEquals(100, limiter.getRate());
+    }
+
+    @Test
+    public void whenRetryAfterIsPending_thenCallsWaitForIt() {
+        limiter.onThrottled(200);
+
+        assertEquals(-1, limiter.reserve(50));
+        assertTrue(limiter.reserve(1000) >= 200);
+
+        now.addAndGet(500);
+        assertEquals(0, limiter.reserve(0));
+    }
+
+    @Test
+    public void whenNoMaxRate_thenCallsAreNotLimitedUntilTheBackendThrottles() {
+        AdaptiveRateLimiter unbounded = new AdaptiveRateLimiter("us", new RateLimitProperties(), now::get);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, unbounded.reserve(0));
+        }
+        assertFalse(unbounded.isLimiting());
+    }
+
+    @Test
+    public void whenNoMaxRateAndThrottled_thenLimitedFromTheMeasuredRateUntilItIsReachedAgain() {
+        AdaptiveRateLimiter unbounded = new AdaptiveRateLimiter("us", new RateLimitProperties(), now::get);
+        // 200 requests per second
+        for (int i = 0; i < 200; i++) {
+            unbounded.reserve(0);
+            now.addAndGet(5);
+        }
+
+        unbounded.onThrottled(-1);
+        assertTrue(unbounded.isLimiting());
+        assertEquals(100, unbounded.getRate());
+
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(1000);
+            unbounded.onSuccess();
+        }
+        assertFalse(unbounded.isLimiting());
+        assertEquals(0, unbounded.reserve(0));
+    }
+
+    @Test
+    public void whenRateIsAtMinimum_thenItIsNotCutFurther() {
+        for (int i = 0; i < 20; i++) {
+            limiter.onThrottled(-1);
+            now.addAndGet(1000);
+        }
+
+        assertEquals(1, limiter.getRate());
+    }
+}
@@ -0,0 +1,87 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.service.MetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveTimeoutsUnitTest {
+
+    private AdaptiveTimeoutProperties properties;
+    private BackendLatencies latencies;
+    private AdaptiveTimeouts adaptiveTimeouts;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new AdaptiveTimeoutProperties();
+        properties.setQuantile(0.99);
+        properties.setHeadroom(Duration.ofMillis(100));
+        properties.setMinTimeout(Duration.ofMillis(50));
+        properties.setMinSamples(100);
+        latencies = new BackendLatencies(Mockito.mock(MetricsService.class), 30_000);
+        latencies.register(Map.of("us", "http://localhost:9001", "ru", "http://localhost:9002"));
+        adaptiveTimeouts = new AdaptiveTimeouts(properties, latencies);
+    }
+
+    @Test
+    public void whenTooFewSamples_thenNothingIsLearned() {
+        latencies.record("us", 10);
+        adaptiveTimeouts.refresh();
+
+        assertEquals(-1, adaptiveTimeouts.timeoutFor("us"));
+    }
+
+    @Test
+    public void whenBackendsDiffer_thenEachGetsItsOwnTimeout() {
+        for (int i = 0; i < 100; i++) {
+            latencies.record("us", 10);
+            latencies.record("ru", 400);
+        }
+        adaptiveTimeouts.refresh();
+
+        assertEquals(110, adaptiveTimeouts.timeoutFor("us"));
+        assertEquals(400 + 100, adaptiveTimeouts.timeoutFor("ru"), 400 * 0.07);
+    }
+
+    @Test
+    public void whenBackendIsVeryFast_thenMinimumTimeoutApplies() {
+        properties.setHeadroom(Duration.ZERO);
+        for (int i = 0; i < 100; i++) {
+            latencies.record("us", 2);
+        }
+        adaptiveTimeouts.refresh();
+
+        assertEquals(50, adaptiveTimeouts.timeoutFor("us"));
+    }
+
+    @Test
+    public void whenDisabled_thenNothingIsLearned() {
+        properties.setEnabled(false);
+        for (int i = 0; i < 100; i++) {
+            latencies.record("us", 10);
+        }
+        adaptiveTimeouts.refresh();
+
+        assertEquals(-1, adaptiveTimeouts.timeoutFor("us"));
+    }
+
+    @Test
+    public void whenLatenciesChange_thenTimeoutOnlyMovesOnRefresh() {
+        for (int i = 0; i < 100; i++) {
+            latencies.record("us", 10);
+        }
+        adaptiveTimeouts.refresh();
+        for (int i = 0; i < 1000; i++) {
+            latencies.record("us", 400);
+        }
+
+        assertEquals(110, adaptiveTimeouts.timeoutFor("us"));
+        adaptiveTimeouts.refresh();
+        assertEquals(400 + 100, adaptiveTimeouts.timeoutFor("us"), 400 * 0.07);
+    }
+}
@@ -0,0 +1,77 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.deadline.Deadline;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkheadUnitTest {
+
+    private Bulkhead bulkhead(int maxConcurrentCalls, int maxWaitingCalls, Duration maxWait) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setMaxConcurrentCalls(maxConcurrentCalls);
+        properties.setMaxWaitingCalls(maxWaitingCalls);
+        properties.setMaxWait(maxWait);
+        return new Bulkhead("us", properties);
+    }
+
+    @Test
+    public void whenBelowLimit_thenCallsAreAdmitted() {
+        Bulkhead bulkhead = bulkhead(2, 0, Duration.ofMillis(100));
+
+        assertTrue(bulkhead.tryAcquire(null));
+        assertTrue(bulkhead.tryAcquire(null));
+        assertEquals(2, bulkhead.getActiveCalls());
+        assertEquals(0, bulkhead.drainSaturatedCount());
+    }
+
+    @Test
+    public void whenFullAndNoRoomToWait_thenRejectedImmediately() {
+        Bulkhead bulkhead = bulkhead(1, 0, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire(null));
+
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire(null));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(1, bulkhead.drainSaturatedCount());
+        assertEquals(0, bulkhead.drainSaturatedCount());
+    }
+
+    @Test
+    public void whenFullAndDeadlineExpired_thenRejectedImmediately() {
+        Bulkhead bulkhead = bulkhead(1, 10, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire(null));
+
+        assertFalse(bulkhead.tryAcquire(Deadline.after(Duration.ZERO)));
+        assertEquals(0, bulkhead.getWaitingCalls());
+    }
+
+    @Test
+    public void whenFullAndNoSlotFreesUp_thenRejectedAfterMaxWait() {
+        Bulkhead bulkhead = bulkhead(1, 10, Duration.ofMillis(50));
+        assertTrue(bulkhead.tryAcquire(null));
+
+        assertFalse(bulkhead.tryAcquire(Deadline.after(Duration.ofSeconds(5))));
+        assertEquals(0, bulkhead.getWaitingCalls());
+    }
+
+    @Test
+    public void whenSlotIsReleased_thenWaitingCallIsAdmitted() throws Exception {
+        Bulkhead bulkhead = bulkhead(1, 10, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire(null));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> bulkhead.tryAcquire(null));
+        while (bulkhead.getWaitingCalls() == 0 && !waiter.isDone()) {
+            Thread.sleep(1);
+        }
+        bulkhead.release();
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getActiveCalls());
+        assertEquals(1, bulkhead.drainPeakActiveCalls());
+    }
+}
@@ -0,0 +1,113 @@
+package com.backendify.proxy.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerUnitTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private CircuitBreaker.StateListener listener;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    public void setUp() {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setOpenDuration(Duration.ofSeconds(5));
+        properties.setHalfOpenProbes(2);
+        listener = Mockito.mock(CircuitBreaker.StateListener.class);
+        breaker = new CircuitBreaker("us", properties, listener, now::get);
+    }
+
+    @Test
+    public void whenBelowMinimumCalls_thenStaysClosed() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void whenFailureRateExceeded_thenOpensAndRejectsCalls() {
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        Mockito.verify(listener).onStateChange("us", CircuitBreaker.State.CLOSED, CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void whenFailuresLeftTheWindow_thenTheyNoLongerCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        now.addAndGet(Duration.ofSeconds(11).toMillis());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void whenOpenDurationPassedAndProbesSucceed_thenCloses() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(5).toMillis());
+
+        // Only the configured number of probes goes through
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        Mockito.verify(listener).onStateChange("us", CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void whenProbeFails_thenOpensAgain() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(5).toMillis());
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        Mockito.verify(listener).onStateChange("us", CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void whenProbeIsIgnored_thenAnotherProbeMayGoThrough() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(5).toMillis());
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onIgnored();
+
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
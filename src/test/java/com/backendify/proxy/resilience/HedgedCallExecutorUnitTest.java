@@ -0,0 +1,167 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.client.BackendCallHandle;
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.exception.ConnectivityTimeoutException;
+import com.backendify.proxy.service.MetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgedCallExecutorUnitTest {
+
+    private final MetricsService metricsService = Mockito.mock(MetricsService.class);
+    private final BulkheadRegistry bulkheads = new BulkheadRegistry(new BulkheadProperties(), metricsService);
+    private HedgedCallExecutor executor;
+
+    private HedgedCallExecutor executor(boolean enabled, double budgetPercent) {
+        HedgingProperties properties = new HedgingProperties();
+        properties.setEnabled(enabled);
+        properties.setMinSamples(10);
+        properties.setMinDelay(Duration.ofMillis(10));
+        properties.setBudgetPercent(budgetPercent);
+
+        // A backend that usually answers within 10 ms
+        BackendLatencies latencies = new BackendLatencies(metricsService, 30_000);
+        latencies.register(Map.of("us", "http://localhost:9001"));
+        for (int i = 0; i < 10; i++) {
+            latencies.record("us", 10);
+        }
+
+        bulkheads.register(Map.of("us", "http://localhost:9001"));
+        executor = new HedgedCallExecutor(properties, latencies, bulkheads, metricsService, command -> new Thread(command).start());
+        executor.register(Map.of("us", "http://localhost:9001"));
+        return executor;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    // Hangs until aborted on the first attempt, answers right away on the hedge
+    private HedgedCallExecutor.Call<String> slowFirstAttempt(AtomicInteger attempts) {
+        return () -> {
+            if (attempts.incrementAndGet() == 1) {
+                long giveUp = System.currentTimeMillis() + 500;
+                while (!BackendCallHandle.current().isAborted() && System.currentTimeMillis() < giveUp) {
+                    Thread.sleep(1);
+                }
+                throw new ConnectivityTimeoutException("Backend timed out");
+            }
+            return "hedge";
+        };
+    }
+
+    @Test
+    public void whenFirstAttemptIsSlow_thenHedgeWinsAndFirstAttemptIsAborted() throws Throwable {
+        HedgedCallExecutor executor = executor(true, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute("us", Deadline.after(Duration.ofSeconds(5)), slowFirstAttempt(attempts));
+
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.get());
+        Mockito.verify(metricsService).incrementHedgeCount("us");
+        Mockito.verify(metricsService).incrementHedgeWinCount("us");
+    }
+
+    @Test
+    public void whenFirstAttemptAnswersAfterTheHedge_thenHedgeReplyIsReturnedAndCountedAsWin() throws Throwable {
+        HedgedCallExecutor executor = executor(true, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // The first attempt only notices the abort once its reply is in
+        String result = executor.execute("us", Deadline.after(Duration.ofSeconds(5)), () -> {
+            if (attempts.incrementAndGet() == 1) {
+                long giveUp = System.currentTimeMillis() + 500;
+                while (!BackendCallHandle.current().isAborted() && System.currentTimeMillis() < giveUp) {
+                    Thread.sleep(1);
+                }
+                return "first";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        Mockito.verify(metricsService).incrementHedgeWinCount("us");
+    }
+
+    @Test
+    public void whenFirstAttemptIsFast_thenNoHedgeIsSent() throws Throwable {
+        HedgedCallExecutor executor = executor(true, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute("us", null, () -> "attempt-" + attempts.incrementAndGet());
+
+        assertEquals("attempt-1", result);
+        Thread.sleep(50);
+        assertEquals(1, attempts.get());
+        Mockito.verify(metricsService, Mockito.never()).incrementHedgeCount("us");
+    }
+
+    @Test
+    public void whenHedgingDisabled_thenSlowAttemptIsWaitedFor() throws Throwable {
+        HedgedCallExecutor executor = executor(false, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConnectivityTimeoutException.class, () -> executor.execute("us", null, slowFirstAttempt(attempts)));
+        assertEquals(1, attempts.get());
+        Mockito.verify(metricsService, Mockito.never()).incrementHedgeCount("us");
+    }
+
+    @Test
+    public void whenBudgetIsSpent_thenNoHedgeIsSent() {
+        HedgedCallExecutor executor = executor(true, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConnectivityTimeoutException.class, () -> executor.execute("us", null, slowFirstAttempt(attempts)));
+        assertEquals(1, attempts.get());
+        Mockito.verify(metricsService, Mockito.never()).incrementHedgeCount("us");
+    }
+
+    @Test
+    public void whenBulkheadIsFull_thenNoHedgeIsSent() {
+        HedgedCallExecutor executor = executor(true, 100);
+        Bulkhead bulkhead = bulkheads.bulkheadFor("us");
+        while (bulkhead.tryAcquireNow()) {
+            // Every slot is taken by other calls
+        }
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConnectivityTimeoutException.class, () -> executor.execute("us", null, slowFirstAttempt(attempts)));
+        assertEquals(1, attempts.get());
+        Mockito.verify(metricsService, Mockito.never()).incrementHedgeCount("us");
+    }
+
+    @Test
+    public void whenHedgeCompletes_thenItsBulkheadSlotIsGivenBack() throws Throwable {
+        HedgedCallExecutor executor = executor(true, 100);
+        Bulkhead bulkhead = bulkheads.bulkheadFor("us");
+
+        assertEquals("hedge", executor.execute("us", Deadline.after(Duration.ofSeconds(5)), slowFirstAttempt(new AtomicInteger())));
+
+        // The hedge thread releases its slot just after handing over its reply
+        long until = System.currentTimeMillis() + 1000;
+        while (bulkhead.getActiveCalls() > 0 && System.currentTimeMillis() < until) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, bulkhead.getActiveCalls());
+    }
+
+    @Test
+    public void whenDeadlineTooCloseForAHedge_thenNoHedgeIsSent() {
+        HedgedCallExecutor executor = executor(true, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConnectivityTimeoutException.class,
+                () -> executor.execute("us", Deadline.after(Duration.ofMillis(5)), slowFirstAttempt(attempts)));
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,63 @@
+package com.backendify.proxy.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramUnitTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    public void whenTooFewSamples_thenNoPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram(10_000, now::get);
+        histogram.record(10);
+
+        assertEquals(-1, histogram.percentile(0.9, 2));
+        assertEquals(10, histogram.percentile(0.9, 1));
+    }
+
+    @Test
+    public void whenLatenciesRecorded_thenPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(10_000, now::get);
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(millis);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.percentile(0.5, 1), 500 * 0.07);
+        assertEquals(900, histogram.percentile(0.9, 1), 900 * 0.07);
+        assertEquals(990, histogram.percentile(0.99, 1), 990 * 0.07);
+    }
+
+    @Test
+    public void whenTwoWindowsPassed_thenOldSamplesAreForgotten() {
+        LatencyHistogram histogram = new LatencyHistogram(10_000, now::get);
+        histogram.record(500);
+
+        // Still counted during the next window
+        now.addAndGet(10_000);
+        histogram.record(20);
+        assertEquals(2, histogram.getCount());
+
+        now.addAndGet(10_000);
+        assertEquals(1, histogram.getCount());
+        assertEquals(20, histogram.percentile(1.0, 1), 20 * 0.07);
+
+        now.addAndGet(25_000);
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void whenMappingLatencyToBucket_thenBucketBoundsContainIt() {
+        for (long millis = 0; millis <= 60_000; millis++) {
+            int index = LatencyHistogram.indexOf(millis);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= millis);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < millis);
+            }
+        }
+    }
+}
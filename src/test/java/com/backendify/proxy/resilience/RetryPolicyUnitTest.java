@@ -0,0 +1,105 @@
+package com.backendify.proxy.resilience;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.exception.BackendServerException;
+import com.backendify.proxy.exception.BackendThrottledException;
+import com.backendify.proxy.exception.ConnectivityTimeoutException;
+import com.backendify.proxy.exception.DeadlineExceededException;
+import com.backendify.proxy.service.MetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyUnitTest {
+
+    private RetryProperties properties;
+    private MetricsService metricsService;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new RetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofMillis(20));
+        properties.setMaxBackoff(Duration.ofMillis(200));
+        properties.setMinAttemptBudget(Duration.ofMillis(100));
+        metricsService = Mockito.mock(MetricsService.class);
+    }
+
+    @Test
+    public void whenAttemptsRemain_thenBackoffIsJitteredBelowTheCeiling() {
+        RetryPolicy retryPolicy = new RetryPolicy(properties, metricsService);
+
+        long first = retryPolicy.backoffMillis("us", 1, new BackendServerException("boom"), null);
+        long second = retryPolicy.backoffMillis("us", 2, new ConnectivityTimeoutException("timeout"), null);
+
+        assertTrue(first >= 0 && first <= 20);
+        assertTrue(second >= 0 && second <= 40);
+    }
+
+    @Test
+    public void whenAttemptsAreUsedUp_thenNoRetry() {
+        RetryPolicy retryPolicy = new RetryPolicy(properties, metricsService);
+
+        assertEquals(-1, retryPolicy.backoffMillis("us", 3, new BackendServerException("boom"), null));
+    }
+
+    @Test
+    public void whenSlaBudgetIsTooShort_thenNoRetry() {
+        RetryPolicy retryPolicy = new RetryPolicy(properties, metricsService);
+
+        assertEquals(-1, retryPolicy.backoffMillis("us", 1, new BackendServerException("boom"), Deadline.after(Duration.ofMillis(50))));
+        assertEquals(-1, retryPolicy.backoffMillis("us", 1, new DeadlineExceededException("expired"), null));
+    }
+
+    @Test
+    public void whenBackendAsksToRetryLater_thenRetryAfterIsUsed() {
+        RetryPolicy retryPolicy = new RetryPolicy(properties, metricsService);
+
+        assertEquals(300, retryPolicy.backoffMillis("us", 1, new BackendThrottledException("throttled", 300), null));
+        assertEquals(-1, retryPolicy.backoffMillis("us", 1, new BackendThrottledException("throttled", 5000), null));
+    }
+
+    @Test
+    public void whenRetryBudgetIsSpent_thenNoRetry() {
+        properties.setBudgetCapacity(2);
+        properties.setBudgetPerSecond(0);
+        RetryPolicy retryPolicy = new RetryPolicy(properties, metricsService);
+
+        assertTrue(retryPolicy.backoffMillis("us", 1, new BackendServerException("boom"), null) >= 0);
+        assertTrue(retryPolicy.backoffMillis("us", 1, new BackendServerException("boom"), null) >= 0);
+        assertEquals(-1, retryPolicy.backoffMillis("us", 1, new BackendServerException("boom"), null));
+        Mockito.verify(metricsService).incrementRetryBudgetExhaustedCount("us");
+    }
+
+    @Test
+    public void whenCallsAreMade_thenBudgetIsRefilled() {
+        AtomicLong now = new AtomicLong(0);
+        RetryBudget budget = new RetryBudget(10, 0.5, 1, now::get);
+        while (budget.tryAcquire()) {
+            // Drain the initial budget
+        }
+
+        budget.onCall();
+        assertFalse(budget.tryAcquire());
+        budget.onCall();
+        assertTrue(budget.tryAcquire());
+
+        now.addAndGet(1000);
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    public void whenParsingRetryAfter_thenSecondsAndDatesAreUnderstood() {
+        assertEquals(5000, RetryPolicy.parseRetryAfter("5", 0));
+        assertEquals(30_000, RetryPolicy.parseRetryAfter("Thu, 01 Jan 1970 00:00:30 GMT", 0));
+        assertEquals(0, RetryPolicy.parseRetryAfter("Thu, 01 Jan 1970 00:00:30 GMT", 60_000));
+        assertEquals(-1, RetryPolicy.parseRetryAfter("soon", 0));
+        assertEquals(-1, RetryPolicy.parseRetryAfter(null, 0));
+    }
+}
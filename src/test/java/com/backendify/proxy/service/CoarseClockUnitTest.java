@@ -0,0 +1,24 @@
+package com.backendify.proxy.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoarseClockUnitTest {
+
+    @Test
+    public void whenRead_thenCloseToSystemClock() {
+        long drift = Math.abs(System.currentTimeMillis() - CoarseClock.currentTimeMillis());
+
+        // Allow for a slow ticker on a busy build machine
+        assertTrue(drift < 100 * CoarseClock.RESOLUTION_MILLIS, "drift " + drift + " ms");
+    }
+
+    @Test
+    public void whenTimePasses_thenClockAdvances() throws InterruptedException {
+        long before = CoarseClock.currentTimeMillis();
+        Thread.sleep(10 * CoarseClock.RESOLUTION_MILLIS);
+
+        assertTrue(CoarseClock.currentTimeMillis() > before);
+    }
+}
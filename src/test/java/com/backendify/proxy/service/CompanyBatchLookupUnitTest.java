@@ -0,0 +1,138 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.exception.CompanyNotFoundException;
+import com.backendify.proxy.exception.CountryNotFoundException;
+import com.backendify.proxy.exception.DeadlineExceededException;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CompanyBatchLookupUnitTest {
+
+    private final CompanyService companyService = Mockito.mock(CompanyService.class);
+    private final MetricsService metricsService = Mockito.mock(MetricsService.class);
+    private final BatchLookupProperties properties = new BatchLookupProperties();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CompanyBatchLookup batchLookup = new CompanyBatchLookup(companyService, properties, executor::execute, metricsService);
+    private final List<String> written = new ArrayList<>();
+    private final CompanyBatchLookup.ResultWriter writer = new CompanyBatchLookup.ResultWriter() {
+        @Override
+        public void write(int index, CompanyRef ref, CachedCompany company, Throwable error) {
+            written.add(index + ":" + (company != null ? company.getName() : error.getClass().getSimpleName()));
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    @BeforeEach
+    public void setUp() throws CountryNotFoundException {
+        when(companyService.getBackendUrl("us")).thenReturn("http://localhost:9001");
+        when(companyService.getBackendUrl("ru")).thenReturn("http://localhost:9002");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void whenSomeCompaniesAreCached_thenTheyAreAnsweredBeforeAnyFetch() throws Exception {
+        when(companyService.lookupCachedCompany("1", "us")).thenReturn(company("Cached"));
+        when(companyService.fetchCompany(eq("2"), eq("us"), any())).thenReturn(company("Fetched"));
+        when(companyService.lookupCachedCompany("3", "xx")).thenThrow(new CountryNotFoundException("No backend configured for country code: xx"));
+        when(companyService.lookupCachedCompany("4", "ru")).thenThrow(new CompanyNotFoundException("Company not found"));
+        when(companyService.fetchCompany(eq("5"), eq("ru"), any())).thenThrow(new CompanyNotFoundException("Company not found"));
+
+        batchLookup.lookup(List.of(ref("1", "us"), ref("2", "us"), ref("3", "xx"), ref("4", "ru"), ref("5", "ru"), ref(null, "us")),
+                Deadline.after(Duration.ofSeconds(5)), writer);
+
+        assertEquals(List.of("0:Cached", "2:CountryNotFoundException", "3:CompanyNotFoundException", "5:IllegalArgumentException"),
+                written.subList(0, 4));
+        assertTrue(written.containsAll(List.of("1:Fetched", "4:CompanyNotFoundException")));
+        assertEquals(6, written.size());
+        verify(companyService, never()).fetchCompany(eq("1"), anyString(), any());
+        verify(metricsService).recordBatchLookup(eq(6), eq(1), eq(0), anyLong());
+    }
+
+    @Test
+    public void whenManyCompaniesMissTheCache_thenEachBackendGetsAtMostItsShareOfCalls() throws Exception {
+        properties.setConcurrencyPerBackend(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(companyService.fetchCompany(anyString(), eq("us"), any())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            active.decrementAndGet();
+            return company("Fetched");
+        });
+        List<CompanyRef> refs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            refs.add(ref(Integer.toString(i), "us"));
+        }
+
+        batchLookup.lookup(refs, Deadline.after(Duration.ofSeconds(5)), writer);
+
+        assertEquals(20, written.size());
+        assertEquals(2, peak.get());
+    }
+
+    @Test
+    public void whenTheDeadlinePasses_thenCompaniesStillBeingFetchedTimeOut() throws Exception {
+        properties.setConcurrencyPerBackend(1);
+        when(companyService.fetchCompany(eq("1"), eq("us"), any())).thenReturn(company("Fast"));
+        when(companyService.fetchCompany(eq("2"), eq("us"), any())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return company("Slow");
+        });
+
+        batchLookup.lookup(List.of(ref("1", "us"), ref("2", "us"), ref("3", "us")), Deadline.after(Duration.ofMillis(100)), writer);
+
+        assertEquals(List.of("0:Fast", "1:" + DeadlineExceededException.class.getSimpleName(), "2:" + DeadlineExceededException.class.getSimpleName()), written);
+        verify(companyService, never()).fetchCompany(eq("3"), anyString(), any());
+        verify(metricsService).recordBatchLookup(eq(3), eq(0), eq(2), anyLong());
+    }
+
+    @Test
+    public void whenEveryWorkerThreadIsBusy_thenMissesAreAnsweredAsUnavailable() throws Exception {
+        CompanyBatchLookup busyLookup = new CompanyBatchLookup(companyService, properties, runnable -> {
+            throw new TaskRejectedException("Every thread is busy");
+        }, metricsService);
+        when(companyService.lookupCachedCompany("1", "us")).thenReturn(company("Cached"));
+
+        busyLookup.lookup(List.of(ref("1", "us"), ref("2", "us"), ref("3", "ru")), Deadline.after(Duration.ofSeconds(5)), writer);
+
+        assertEquals("0:Cached", written.get(0));
+        assertTrue(written.containsAll(List.of("1:BackendUnavailableException", "2:BackendUnavailableException")));
+        assertEquals(3, written.size());
+        verify(companyService, never()).fetchCompany(anyString(), anyString(), any());
+    }
+
+    private static CompanyRef ref(String id, String countryIso) {
+        return new CompanyRef(id, countryIso);
+    }
+
+    private static CachedCompany company(String name) {
+        return CachedCompany.of(name, CachedCompany.NO_CLOSURE, System.currentTimeMillis());
+    }
+}
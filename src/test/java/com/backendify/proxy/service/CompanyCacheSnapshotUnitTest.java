@@ -0,0 +1,134 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.cache.DiskCacheProperties;
+import com.backendify.proxy.cache.DiskCompanyCache;
+import com.backendify.proxy.config.CacheConfig;
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.exception.CountryNotFoundException;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class CompanyCacheSnapshotUnitTest {
+
+    @TempDir
+    Path directory;
+
+    private final MetricsService metricsService = Mockito.mock(MetricsService.class);
+    private final CompanyService companyService = Mockito.mock(CompanyService.class);
+    private final DiskCompanyCache diskCache = new DiskCompanyCache(new DiskCacheProperties(), new CompanyCacheProperties(), metricsService);
+    private CompanyCacheProperties properties;
+
+    @BeforeEach
+    public void setUp() throws CountryNotFoundException {
+        properties = new CompanyCacheProperties();
+        properties.setSnapshotPath(directory.resolve("company-cache.bin").toString());
+        // A single backend, for "us"
+        when(companyService.cacheKey(anyString(), Mockito.eq("us"))).thenAnswer(invocation -> new CompanyKey((short) 0, invocation.getArgument(0)));
+        when(companyService.cacheKey(anyString(), Mockito.eq("ru"))).thenThrow(new CountryNotFoundException("No backend configured for country code: ru"));
+        when(companyService.countryCodeOf(any())).thenReturn("us");
+    }
+
+    @Test
+    public void whenSavedAndLoaded_thenEntriesKeepTheirContentAndAge() {
+        long fetchedAt = CoarseClock.currentTimeMillis() - Duration.ofHours(3).toMillis();
+        CacheManager before = new CacheConfig().cacheManager(properties, diskCache);
+        CompanyCacheSnapshot saving = new CompanyCacheSnapshot(companyService, metricsService, before, properties);
+        saving.load();
+        before.getCache("companyCache").put(new CompanyKey((short) 0, "123"), CachedCompany.of("Backendify \"Ltd\"", 1_643_328_000_000L, fetchedAt));
+        before.getCache("companyCache").put(new CompanyKey((short) 0, "456"), CachedCompany.of(null, CachedCompany.NO_CLOSURE, fetchedAt));
+
+        assertEquals(2, saving.save());
+
+        CacheManager after = new CacheConfig().cacheManager(properties, diskCache);
+        assertEquals(2, new CompanyCacheSnapshot(companyService, metricsService, after, properties).load());
+        CachedCompany restored = after.getCache("companyCache").get(new CompanyKey((short) 0, "123"), CachedCompany.class);
+        assertEquals("Backendify \"Ltd\"", restored.getName());
+        assertEquals(1_643_328_000_000L, restored.getActiveUntil());
+        assertEquals(fetchedAt, restored.getFetchedAt());
+        assertNull(after.getCache("companyCache").get(new CompanyKey((short) 0, "456"), CachedCompany.class).getName());
+    }
+
+    @Test
+    public void whenStoredOffHeap_thenSavedAndLoadedAlike() {
+        properties.setStore(CompanyCacheProperties.Store.OFF_HEAP);
+        properties.setOffHeapBudget(DataSize.ofMegabytes(4));
+        long fetchedAt = CoarseClock.currentTimeMillis() - Duration.ofHours(3).toMillis();
+        CacheManager before = new CacheConfig().cacheManager(properties, diskCache);
+        CompanyCacheSnapshot saving = new CompanyCacheSnapshot(companyService, metricsService, before, properties);
+        saving.load();
+        before.getCache("companyCache").put(new CompanyKey((short) 0, "123"), CachedCompany.of("Backendify Ltd", CachedCompany.NO_CLOSURE, fetchedAt));
+
+        assertEquals(1, saving.save());
+
+        CacheManager after = new CacheConfig().cacheManager(properties, diskCache);
+        assertEquals(1, new CompanyCacheSnapshot(companyService, metricsService, after, properties).load());
+        CachedCompany restored = after.getCache("companyCache").get(new CompanyKey((short) 0, "123"), CachedCompany.class);
+        assertEquals("Backendify Ltd", restored.getName());
+        assertEquals(fetchedAt, restored.getFetchedAt());
+    }
+
+    @Test
+    public void whenEntriesExpiredOrLostTheirBackend_thenTheyAreDroppedOnLoad() {
+        long now = CoarseClock.currentTimeMillis();
+        CacheManager before = new CacheConfig().cacheManager(properties, diskCache);
+        CompanyCacheSnapshot saving = new CompanyCacheSnapshot(companyService, metricsService, before, properties);
+        saving.load();
+        Cache cache = before.getCache("companyCache");
+        cache.put(new CompanyKey((short) 0, "fresh"), CachedCompany.of("Fresh", CachedCompany.NO_CLOSURE, now));
+        cache.put(new CompanyKey((short) 0, "old"), CachedCompany.of("Old", CachedCompany.NO_CLOSURE, now - Duration.ofHours(24).toMillis()));
+        saving.save();
+
+        // Past hard TTL plus grace by the time of the restart
+        properties.setStaleGrace(Duration.ZERO);
+        Mockito.reset(companyService);
+        when(companyService.cacheKey(anyString(), Mockito.eq("us"))).thenAnswer(invocation -> new CompanyKey((short) 0, invocation.getArgument(0)));
+        CacheManager after = new CacheConfig().cacheManager(properties, diskCache);
+
+        assertEquals(1, new CompanyCacheSnapshot(companyService, metricsService, after, properties).load());
+        assertNotNull(after.getCache("companyCache").get(new CompanyKey((short) 0, "fresh")));
+        assertNull(after.getCache("companyCache").get(new CompanyKey((short) 0, "old")));
+        Mockito.verify(metricsService).recordCacheSnapshotLoad(Mockito.anyLong(), Mockito.eq(1L), Mockito.eq(1L));
+    }
+
+    @Test
+    public void whenNoSnapshotExists_thenStartsCold() {
+        CompanyCacheSnapshot snapshot = new CompanyCacheSnapshot(companyService, metricsService, new CacheConfig().cacheManager(properties, diskCache), properties);
+
+        assertEquals(0, snapshot.load());
+        Mockito.verify(metricsService, Mockito.never()).incrementCacheSnapshotErrorCount();
+    }
+
+    @Test
+    public void whenSnapshotIsCorrupt_thenStartsColdAndReportsIt() throws Exception {
+        Files.write(directory.resolve("company-cache.bin"), new byte[]{1, 2, 3});
+        CompanyCacheSnapshot snapshot = new CompanyCacheSnapshot(companyService, metricsService, new CacheConfig().cacheManager(properties, diskCache), properties);
+
+        assertEquals(0, snapshot.load());
+        Mockito.verify(metricsService).incrementCacheSnapshotErrorCount();
+    }
+
+    @Test
+    public void whenSnapshotWasNeverLoaded_thenSavingLeavesItAlone() throws Exception {
+        Files.write(directory.resolve("company-cache.bin"), new byte[]{1, 2, 3});
+        CompanyCacheSnapshot snapshot = new CompanyCacheSnapshot(companyService, metricsService, new CacheConfig().cacheManager(properties, diskCache), properties);
+
+        assertEquals(-1, snapshot.save());
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(directory.resolve("company-cache.bin")));
+    }
+}
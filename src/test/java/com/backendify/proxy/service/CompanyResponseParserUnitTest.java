@@ -0,0 +1,56 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.exception.BackendResponseFormatException;
+import com.backendify.proxy.model.CachedCompany;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompanyResponseParserUnitTest {
+
+    private final MetricsService metricsService = Mockito.mock(MetricsService.class);
+    private final CompanyResponseParser parser = new CompanyResponseParser(new ObjectMapper(), metricsService);
+
+    @Test
+    public void whenV1HasPaddingAndNestedFields_thenOnlyNameAndClosureAreKept() throws Throwable {
+        CachedCompany company = parser.parse("application/x-company-v1", body(
+                "{\"padding\": [1, {\"cn\": \"Nested\"}, \"x\"], \"cn\": \"Company \\\"V1\\\"\","
+                        + " \"meta\": {\"closed_on\": \"1999-01-01T00:00:00Z\"}, \"closed_on\": \"2020-01-01T00:00:00+01:00\"}"));
+
+        assertEquals("Company \"V1\"", company.getName());
+        assertEquals(Instant.parse("2019-12-31T23:00:00Z").toEpochMilli(), company.getActiveUntil());
+        Mockito.verify(metricsService).incrementCompanyV1ResponseCount();
+    }
+
+    @Test
+    public void whenV2HasNoDissolvedOn_thenCompanyStaysActive() throws Throwable {
+        CachedCompany company = parser.parse("application/x-company-v2", body(
+                "{\"company_name\": \"Company V2\", \"tin\": \"123\", \"dissolved_on\": null}"));
+
+        assertEquals("Company V2", company.getName());
+        assertEquals(CachedCompany.NO_CLOSURE, company.getActiveUntil());
+    }
+
+    @Test
+    public void whenNameIsAnObject_thenThrowsFormatException() {
+        assertThrows(BackendResponseFormatException.class, () ->
+                parser.parse("application/x-company-v1", body("{\"cn\": {\"first\": \"Company\"}}")));
+    }
+
+    @Test
+    public void whenReplyIsTruncated_thenThrowsFormatException() {
+        assertThrows(BackendResponseFormatException.class, () ->
+                parser.parse("application/x-company-v2", body("{\"company_name\": \"Company V2\"")));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
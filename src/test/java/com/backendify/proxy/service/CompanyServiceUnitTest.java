@@ -1,29 +1,39 @@
 package com.backendify.proxy.service;
 
 import com.backendify.proxy.application.Application;
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.deadline.DeadlineContextHolder;
 import com.backendify.proxy.exception.*;
+import com.backendify.proxy.model.CachedCompany;
 import com.backendify.proxy.model.CompanyResponse;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.timgroup.statsd.StatsDClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,6 +69,8 @@ public class CompanyServiceUnitTest {
         // Clear cache before each test
         if (cacheManager.getCache("companyCache") != null)
             cacheManager.getCache("companyCache").clear();
+        if (cacheManager.getCache("companyNotFoundCache") != null)
+            cacheManager.getCache("companyNotFoundCache").clear();
     }
 
     @Test
@@ -70,7 +82,7 @@ public class CompanyServiceUnitTest {
         
         // Mock the RestTemplate to return a V1 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v1ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(Mockito.eq("http://localhost:9001/companies/123"), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(Mockito.eq("http://localhost:9001/companies/123"))).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("123", "us");
@@ -90,7 +102,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return a V2 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v2ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(Mockito.eq("http://localhost:9001/companies/123"), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(Mockito.eq("http://localhost:9001/companies/123"))).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("123", "us");
@@ -110,7 +122,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return an unsupported content type response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(unsupportedResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Expect a RuntimeException due to unsupported content type
         assertThrows(UnexpectedContentTypeException.class, () -> {
@@ -126,7 +138,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return an unsupported content type response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v1ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Expect a RuntimeException due to unsupported content type
         assertThrows(IllegalStateException.class, () -> {
@@ -143,7 +155,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return a V1 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v1ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("123", "us");
@@ -164,7 +176,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return a V1 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v2ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("123", "us");
@@ -185,7 +197,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return a V1 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v1ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("Backendify", "us");
@@ -205,7 +217,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return a V1 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v2ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("123", "us");
@@ -225,7 +237,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return a V1 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v1ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("Backendify", "us");
@@ -247,7 +259,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return a V1 response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v2ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Call the service method
         CompanyResponse companyResponse = companyService.getCompany("123", "us");
@@ -269,7 +281,7 @@ public class CompanyServiceUnitTest {
 
         // Mock the RestTemplate to return an unsupported content type response
         ResponseEntity<String> responseEntity = new ResponseEntity<>(v1ResponseBody, headers, HttpStatus.OK);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         // Expect a custom Exception due to unsupported content type
         assertThrows(BackendResponseFormatException.class, () -> {
@@ -280,7 +292,7 @@ public class CompanyServiceUnitTest {
     @Test
     public void whenBackendServerError_thenThrowAppropriateException() {
         // Simulate a server error (5xx)
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class)))
+        when(backendCall(anyString()))
                 .thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
 
         // Expect a custom Exception
@@ -292,7 +304,7 @@ public class CompanyServiceUnitTest {
     @Test
     public void whenBackendTimesOut_thenThrowAppropriateException() {
         // Simulate a timeout (ResourceAccessException)
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class)))
+        when(backendCall(anyString()))
                 .thenThrow(new ResourceAccessException("Backend timed out"));
 
         // Expect a custom Exception
@@ -304,7 +316,7 @@ public class CompanyServiceUnitTest {
     @Test
     public void whenCompanyNotFound_thenThrowCompanyNotFoundException() {
         // Simulate a 404 Not Found response from the backend
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class)))
+        when(backendCall(anyString()))
                 .thenThrow(HttpClientErrorException.create(
                         HttpStatus.NOT_FOUND,
                         "Company not found",
@@ -317,6 +329,123 @@ public class CompanyServiceUnitTest {
         });
     }
 
+    @Test
+    public void whenDeadlineExpired_thenFailFastWithoutCallingBackend() {
+        // Simulate a request whose SLA budget is already spent
+        DeadlineContextHolder.set(Deadline.after(Duration.ZERO));
+        try {
+            assertThrows(DeadlineExceededException.class, () -> {
+                companyService.getCompany("123", "us");
+            });
+            Mockito.verifyNoInteractions(restTemplate);
+        } finally {
+            DeadlineContextHolder.reset();
+        }
+    }
+
+    @Test
+    public void whenBackendKeepsTimingOut_thenCircuitOpensAndBackendIsNoLongerCalled() {
+        // Simulate a backend that stopped answering
+        when(backendCall(anyString()))
+                .thenThrow(new ResourceAccessException("Backend timed out"));
+
+        // Enough failed calls to reach the minimum number of calls of the window
+        for (int i = 0; i < 20; i++) {
+            String id = "timeout-" + i;
+            assertThrows(ConnectivityTimeoutException.class, () -> companyService.getCompany(id, "us"));
+        }
+
+        // The breaker is open now, the next call is refused without reaching the backend
+        Mockito.clearInvocations(restTemplate);
+        assertThrows(BackendUnavailableException.class, () -> companyService.getCompany("timeout-20", "us"));
+        Mockito.verifyNoInteractions(restTemplate);
+        Mockito.verify(metricsService).incrementCircuitBreakerRejectionCount("us");
+
+        // Other countries have their own breaker
+        assertThrows(ConnectivityTimeoutException.class, () -> companyService.getCompany("timeout-21", "ru"));
+    }
+
+    @Test
+    public void whenBackendFailsOnce_thenRetryAnswers() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/x-company-v1"));
+        ResponseEntity<String> responseEntity = new ResponseEntity<>("{\"cn\": \"Company1\", \"created_on\": \"2022-01-01T00:00:00Z\"}", headers, HttpStatus.OK);
+        when(backendCall(anyString()))
+                .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))
+                .thenAnswer(reply(responseEntity));
+
+        CompanyResponse response = companyService.getCompany("123", "us");
+
+        assertEquals("Company1", response.getName());
+        verifyBackendCalls(2);
+        Mockito.verify(metricsService).incrementRetryCount("us");
+    }
+
+    @Test
+    public void whenBackendThrottles_thenRetryAfterIsHonored() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        HttpHeaders throttleHeaders = new HttpHeaders();
+        throttleHeaders.set(HttpHeaders.RETRY_AFTER, "0");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/x-company-v1"));
+        ResponseEntity<String> responseEntity = new ResponseEntity<>("{\"cn\": \"Company1\", \"created_on\": \"2022-01-01T00:00:00Z\"}", headers, HttpStatus.OK);
+        when(backendCall(anyString()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", throttleHeaders, null, StandardCharsets.UTF_8))
+                .thenAnswer(reply(responseEntity));
+
+        CompanyResponse response = companyService.getCompany("123", "us");
+
+        assertEquals("Company1", response.getName());
+        Mockito.verify(metricsService).incrementRetryCount("us");
+    }
+
+    @Test
+    public void whenBackendThrottlesForTooLong_thenThrottledExceptionIsThrown() {
+        HttpHeaders throttleHeaders = new HttpHeaders();
+        throttleHeaders.set(HttpHeaders.RETRY_AFTER, "120");
+        when(backendCall(anyString()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", throttleHeaders, null, StandardCharsets.UTF_8));
+
+        BackendThrottledException e = assertThrows(BackendThrottledException.class, () -> companyService.getCompany("123", "us"));
+        assertEquals(120_000, e.getRetryAfterMillis());
+        verifyBackendCalls(1);
+    }
+
+    @Test
+    public void whenBackendKeepsThrottling_thenCircuitStaysClosed() {
+        HttpHeaders throttleHeaders = new HttpHeaders();
+        throttleHeaders.set(HttpHeaders.RETRY_AFTER, "120");
+        when(backendCall(anyString()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", throttleHeaders, null, StandardCharsets.UTF_8));
+
+        for (int i = 0; i < 20; i++) {
+            String id = "throttled-" + i;
+            assertThrows(BackendUnavailableException.class, () -> companyService.getCompany(id, "us"));
+        }
+
+        // The rate limiter holds the calls back, the breaker never refuses one
+        Mockito.verify(metricsService, Mockito.never()).incrementCircuitBreakerRejectionCount("us");
+    }
+
+    @Test
+    public void whenCompanyNotFoundTwice_thenBackendIsCalledOnce() {
+        // Simulate a 404 Not Found response from the backend
+        when(backendCall(anyString()))
+                .thenThrow(HttpClientErrorException.create(
+                        HttpStatus.NOT_FOUND,
+                        "Company not found",
+                        HttpHeaders.EMPTY,
+                        null,
+                        StandardCharsets.UTF_8
+                ));
+
+        assertThrows(CompanyNotFoundException.class, () -> companyService.getCompany("999", "us"));
+        // The second lookup is answered from the negative cache
+        assertThrows(CompanyNotFoundException.class, () -> companyService.getCompany("999", "us"));
+
+        verifyBackendCalls(1);
+        Mockito.verify(metricsService).incrementNotFoundCacheHitCount();
+    }
+
     @Test
     public void whenCountryCodeNotFound_thenThrowCountryNotFoundException() {
         // Call the public method getCompany which internally calls getBackendUrl
@@ -335,7 +464,7 @@ public class CompanyServiceUnitTest {
         ResponseEntity<String> responseEntity = new ResponseEntity<>(validResponse, headers, HttpStatus.OK);
 
         // Mock the backend call to return the valid response
-        when(restTemplate.getForEntity(Mockito.eq("http://localhost:9001/companies/123"), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(Mockito.eq("http://localhost:9001/companies/123"))).thenAnswer(reply(responseEntity));
 
         // First call (should make the backend request)
         CompanyResponse response = companyService.getCompany("123", "us");
@@ -346,11 +475,119 @@ public class CompanyServiceUnitTest {
         assertEquals("Test Company", response.getName());
 
         // Check if the response is cached
-        CompanyResponse cachedResponse = (CompanyResponse) cacheManager.getCache("companyCache").get("123-us").get();
+        CachedCompany cachedResponse = cacheManager.getCache("companyCache").get(companyService.cacheKey("123", "us"), CachedCompany.class);
         assertNotNull(cachedResponse);
         assertEquals("Test Company", cachedResponse.getName());
     }
 
+    @Test
+    public void whenCompanyFetchedThenReadAgain_thenOneHeapMissOneHitAndOneBackendFetchAreCounted() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/x-company-v1"));
+        ResponseEntity<String> responseEntity = new ResponseEntity<>("{\"cn\": \"Company1\", \"created_on\": \"2022-01-01T00:00:00Z\"}", headers, HttpStatus.OK);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
+        CacheStats before = ((CaffeineCache) cacheManager.getCache("companyCache")).getNativeCache().stats();
+
+        companyService.getCompany("123", "us");
+        companyService.getCompany("123", "us");
+
+        // The re-check before the backend call is not a lookup of its own
+        CacheStats stats = ((CaffeineCache) cacheManager.getCache("companyCache")).getNativeCache().stats().minus(before);
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.hitCount());
+        Mockito.verify(metricsService).incrementBackendFetchCount();
+    }
+
+    @Test
+    public void whenCachedEntryPastSoftTtl_thenServeItAndRefreshInBackground() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        // Cache an entry that is past its soft TTL but still within its hard TTL
+        cacheCompany("123", "Old Company", Duration.ofHours(21));
+        String validResponse = "{\"cn\": \"Test Company\", \"created_on\": \"2022-01-01T00:00:00Z\"}";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/x-company-v1"));
+        when(backendCall(Mockito.eq("http://localhost:9001/companies/123")))
+                .thenAnswer(reply(new ResponseEntity<>(validResponse, headers, HttpStatus.OK)));
+
+        // The stale entry is served right away
+        CompanyResponse response = companyService.getCompany("123", "us");
+        assertEquals("Old Company", response.getName());
+
+        // And replaced by the background refresh
+        Mockito.verify(metricsService, Mockito.timeout(5000).atLeastOnce()).incrementCacheRefreshCount();
+        CachedCompany refreshed = cacheManager.getCache("companyCache").get(companyService.cacheKey("123", "us"), CachedCompany.class);
+        assertEquals("Test Company", refreshed.getName());
+    }
+
+    @Test
+    public void whenHotEntryNearsSoftTtl_thenRefreshedAhead() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        // Within the refresh-ahead lead of the soft TTL, so reads alone do not refresh it
+        cacheCompany("123", "Old Company", Duration.ofHours(16));
+        cacheCompany("456", "Cold Company", Duration.ofHours(16));
+        String validResponse = "{\"cn\": \"Test Company\", \"created_on\": \"2022-01-01T00:00:00Z\"}";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/x-company-v1"));
+        when(backendCall(anyString())).thenAnswer(reply(new ResponseEntity<>(validResponse, headers, HttpStatus.OK)));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Old Company", companyService.getCompany("123", "us").getName());
+        }
+        companyService.getCompany("456", "us");
+        verifyBackendCalls(0);
+
+        companyService.refreshHotCompanies();
+
+        Mockito.verify(metricsService, Mockito.timeout(5000).atLeastOnce()).incrementCacheRefreshCount();
+        CachedCompany refreshed = cacheManager.getCache("companyCache").get(companyService.cacheKey("123", "us"), CachedCompany.class);
+        assertEquals("Test Company", refreshed.getName());
+        // Read once, the other company waits for its soft TTL
+        Mockito.verify(restTemplate, Mockito.never()).execute(Mockito.eq("http://localhost:9001/companies/456"), Mockito.eq(HttpMethod.GET), Mockito.isNull(), Mockito.<ResponseExtractor<CachedCompany>>any());
+    }
+
+    @Test
+    public void whenCachedEntryPastHardTtlAndBackendTimesOut_thenServeStaleEntry() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        // Cache an entry that is past its hard TTL but within the grace window
+        cacheCompany("123", "Old Company", Duration.ofMinutes(24 * 60 + 30));
+        when(backendCall(anyString())).thenThrow(new ResourceAccessException("Backend timed out"));
+
+        CompanyResponse response = companyService.getCompany("123", "us");
+
+        assertEquals("Old Company", response.getName());
+        Mockito.verify(metricsService).incrementStaleServedCount();
+    }
+
+    @Test
+    public void whenCachedEntryPastHardTtlAndBackendAnswers_thenServeFreshReply() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        cacheCompany("123", "Old Company", Duration.ofMinutes(24 * 60 + 30));
+        String validResponse = "{\"cn\": \"Test Company\", \"created_on\": \"2022-01-01T00:00:00Z\"}";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/x-company-v1"));
+        when(backendCall(anyString()))
+                .thenAnswer(reply(new ResponseEntity<>(validResponse, headers, HttpStatus.OK)));
+
+        CompanyResponse response = companyService.getCompany("123", "us");
+
+        assertEquals("Test Company", response.getName());
+    }
+
+    @Test
+    public void whenCachedCompanyClosesAfterBeingCached_thenReportedInactive() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
+        // The company was active when the backend answered an hour ago, and closed a minute ago
+        long now = System.currentTimeMillis();
+        long closedOn = now - Duration.ofMinutes(1).toMillis();
+        CachedCompany cached = CachedCompany.of("Backendify Ltd", closedOn, now - Duration.ofHours(1).toMillis());
+        cacheManager.getCache("companyCache").put(companyService.cacheKey("123", "us"), cached);
+
+        CompanyResponse companyResponse = companyService.getCompany("123", "us");
+
+        assertFalse(companyResponse.isActive());
+        Mockito.verifyNoInteractions(restTemplate);
+    }
+
+    private void cacheCompany(String id, String name, Duration age) throws CountryNotFoundException {
+        CachedCompany cached = CachedCompany.of(name, CachedCompany.NO_CLOSURE, System.currentTimeMillis() - age.toMillis());
+        cacheManager.getCache("companyCache").put(companyService.cacheKey(id, "us"), cached);
+    }
+
     @Test
     public void whenBackendFails_thenReturnCachedResponse() throws Exception, BackendResponseFormatException, CompanyNotFoundException, CountryNotFoundException, BackendServerException, ConnectivityTimeoutException {
         // Set up a valid backend response to be cached initially
@@ -360,7 +597,7 @@ public class CompanyServiceUnitTest {
         ResponseEntity<String> responseEntity = new ResponseEntity<>(validResponse, headers, HttpStatus.OK);
 
         // Mock the backend call to return the valid response
-        when(restTemplate.getForEntity(Mockito.eq("http://localhost:9001/companies/123"), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(Mockito.eq("http://localhost:9001/companies/123"))).thenAnswer(reply(responseEntity));
 
         // First call (should make the backend request and cache the response)
         CompanyResponse response = companyService.getCompany("123", "us");
@@ -371,7 +608,7 @@ public class CompanyServiceUnitTest {
 
         // Simulate backend failure with an unchecked exception (like ResourceAccessException)
         Mockito.reset(restTemplate);  // Reset the previous mock setup
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenThrow(new ResourceAccessException("Backend timed out"));
+        when(backendCall(anyString())).thenThrow(new ResourceAccessException("Backend timed out"));
 
         // Second call (should return cached response, even though the backend fails)
         CompanyResponse cachedResponse = companyService.getCompany("123", "us");
@@ -390,23 +627,40 @@ public class CompanyServiceUnitTest {
         ResponseEntity<String> responseEntity = new ResponseEntity<>(validResponse, headers, HttpStatus.OK);
 
         // Mock the backend call
-        when(restTemplate.getForEntity(Mockito.eq("http://localhost:9001/companies/123"), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(Mockito.eq("http://localhost:9001/companies/123"))).thenAnswer(reply(responseEntity));
 
         // First call should cache the response
         companyService.getCompany("123", "us");
 
         // Simulate cache expiration manually (for test purposes)
-        cacheManager.getCache("companyCache").evict("123-us");
+        cacheManager.getCache("companyCache").evict(companyService.cacheKey("123", "us"));
 
         // Make the backend call again (should hit the backend because cache is cleared)
         Mockito.reset(restTemplate);
-        when(restTemplate.getForEntity(anyString(), Mockito.eq(String.class))).thenReturn(responseEntity);
+        when(backendCall(anyString())).thenAnswer(reply(responseEntity));
 
         CompanyResponse responseAfterCacheEvict = companyService.getCompany("123", "us");
         assertNotNull(responseAfterCacheEvict);
         assertEquals("Test Company", responseAfterCacheEvict.getName());
     }
-}
 
+    // The backend call made by CompanyService, for stubbing with the given URL matcher
+    private CachedCompany backendCall(String url) {
+        return restTemplate.execute(url, Mockito.eq(HttpMethod.GET), Mockito.isNull(), Mockito.<ResponseExtractor<CachedCompany>>any());
+    }
 
+    private void verifyBackendCalls(int times) {
+        Mockito.verify(restTemplate, Mockito.times(times)).execute(anyString(), Mockito.eq(HttpMethod.GET), Mockito.isNull(), Mockito.<ResponseExtractor<CachedCompany>>any());
+    }
 
+    // Hands the given reply to the service's response extractor, the way RestTemplate does after a successful call
+    private static Answer<CachedCompany> reply(ResponseEntity<String> entity) {
+        return invocation -> {
+            byte[] body = entity.getBody() == null ? new byte[0] : entity.getBody().getBytes(StandardCharsets.UTF_8);
+            MockClientHttpResponse response = new MockClientHttpResponse(body, entity.getStatusCode());
+            response.getHeaders().putAll(entity.getHeaders());
+            ResponseExtractor<CachedCompany> extractor = invocation.getArgument(3);
+            return extractor.extractData(response);
+        };
+    }
+}
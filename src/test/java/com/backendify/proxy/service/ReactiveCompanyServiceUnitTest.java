@@ -0,0 +1,217 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.cache.DiskCacheProperties;
+import com.backendify.proxy.cache.DiskCompanyCache;
+import com.backendify.proxy.client.BackendPoolProperties;
+import com.backendify.proxy.client.ReactiveBackendClients;
+import com.backendify.proxy.config.CompanyCacheProperties;
+import com.backendify.proxy.deadline.Deadline;
+import com.backendify.proxy.exception.*;
+import com.backendify.proxy.model.CachedCompany;
+import com.backendify.proxy.model.CompanyKey;
+import com.backendify.proxy.resilience.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class ReactiveCompanyServiceUnitTest {
+
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private ClientResponse backendResponse;
+    private Duration backendDelay = Duration.ZERO;
+    private CacheManager cacheManager;
+    private BulkheadRegistry bulkheads;
+    private ReactiveCompanyService service;
+
+    @BeforeEach
+    public void setUp() throws CountryNotFoundException {
+        MetricsService metricsService = Mockito.mock(MetricsService.class);
+        CompanyService companyService = Mockito.mock(CompanyService.class);
+        when(companyService.getBackendUrl("us")).thenReturn("http://localhost:9001");
+        when(companyService.cacheKey("123", "us")).thenReturn(new CompanyKey((short) 0, "123"));
+        when(companyService.getBackendUrl("xx")).thenThrow(new CountryNotFoundException("No backend configured for country code: xx"));
+
+        // Every backend call gets the response set by the test
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    backendCalls.incrementAndGet();
+                    return Mono.just(backendResponse).delayElement(backendDelay);
+                })
+                .build();
+        ReactiveBackendClients backendClients = new ReactiveBackendClients(new BackendPoolProperties()) {
+            @Override
+            protected WebClient newClient(String countryCode, BackendPoolProperties.Settings settings) {
+                return webClient;
+            }
+        };
+
+        Map<String, String> backendMappings = Map.of("us", "http://localhost:9001");
+        CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry(new CircuitBreakerProperties(), metricsService);
+        bulkheads = new BulkheadRegistry(new BulkheadProperties(), metricsService);
+        RateLimiterRegistry rateLimiters = new RateLimiterRegistry(new RateLimitProperties(), metricsService);
+        RetryPolicy retryPolicy = new RetryPolicy(new RetryProperties(), metricsService);
+        BackendLatencies latencies = new BackendLatencies(metricsService, 30_000);
+        circuitBreakers.register(backendMappings);
+        bulkheads.register(backendMappings);
+        rateLimiters.register(backendMappings);
+        retryPolicy.register(backendMappings);
+        latencies.register(backendMappings);
+
+        cacheManager = new ConcurrentMapCacheManager("companyCache", "companyNotFoundCache");
+        service = new ReactiveCompanyService(backendClients, companyService, new CompanyResponseParser(new ObjectMapper(), metricsService),
+                metricsService, cacheManager, new DiskCompanyCache(new DiskCacheProperties(), new CompanyCacheProperties(), metricsService),
+                new CompanyCacheProperties(), circuitBreakers, bulkheads, rateLimiters, retryPolicy,
+                latencies, new AdaptiveTimeouts(new AdaptiveTimeoutProperties(), latencies), new BackendPoolProperties());
+    }
+
+    @Test
+    public void whenBackendReturnsV1_thenReturnsAndCachesCompany() throws Throwable {
+        backendResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/x-company-v1")
+                .body("{\"cn\": \"Company V1\", \"created_on\": \"2022-01-01T00:00:00Z\"}")
+                .build();
+
+        CachedCompany company = lookup();
+        CachedCompany cached = lookup();
+
+        assertEquals("Company V1", company.getName());
+        assertSame(company, cached);
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    public void whenBackendReturns404_thenCompanyNotFoundIsRemembered() {
+        backendResponse = ClientResponse.create(HttpStatus.NOT_FOUND).build();
+
+        assertThrows(CompanyNotFoundException.class, this::lookup);
+        assertThrows(CompanyNotFoundException.class, this::lookup);
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    public void whenUnexpectedContentType_thenThrowsUnexpectedContentType() {
+        backendResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/unsupported")
+                .body("{}")
+                .build();
+
+        assertThrows(UnexpectedContentTypeException.class, this::lookup);
+    }
+
+    @Test
+    public void whenUnexpectedContentType_thenReplyBufferIsReleased() {
+        NettyDataBuffer body = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT).allocateBuffer(2);
+        body.write("{}".getBytes(StandardCharsets.UTF_8));
+        backendResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/unsupported")
+                .body(Flux.just(body))
+                .build();
+
+        assertThrows(UnexpectedContentTypeException.class, this::lookup);
+        assertEquals(0, body.getNativeBuffer().refCnt());
+    }
+
+    @Test
+    public void whenCountryIsUnknown_thenThrowsCountryNotFound() {
+        Mono<CachedCompany> lookup = service.lookupCompany("123", "xx", Deadline.after(Duration.ofMillis(900)));
+
+        assertThrows(CountryNotFoundException.class, () -> await(lookup));
+        assertEquals(0, backendCalls.get());
+    }
+
+    @Test
+    public void whenBackendKeepsFailing_thenRetriesAndThrowsBackendServerError() {
+        backendResponse = ClientResponse.create(HttpStatus.BAD_GATEWAY).build();
+
+        assertThrows(BackendServerException.class, this::lookup);
+        assertEquals(3, backendCalls.get());  // The default maximum of attempts
+    }
+
+    @Test
+    public void whenBackendFailsPastTheHardTtl_thenServesTheStaleReply() throws Throwable {
+        CachedCompany stale = CachedCompany.of("Stale Company", CachedCompany.NO_CLOSURE,
+                CoarseClock.currentTimeMillis() - Duration.ofHours(25).toMillis());
+        cacheManager.getCache("companyCache").put(new CompanyKey((short) 0, "123"), stale);
+        backendResponse = ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build();
+
+        assertSame(stale, lookup());
+    }
+
+    @Test
+    public void whenManyMissesRaceForTheSameCompany_thenEveryBulkheadSlotIsGivenBack() throws Throwable {
+        backendResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/x-company-v1")
+                .body("{\"cn\": \"Company V1\", \"created_on\": \"2022-01-01T00:00:00Z\"}")
+                .build();
+        backendDelay = Duration.ofMillis(50);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CachedCompany>> lookups = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            lookups.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return lookup();
+                } catch (Throwable e) {
+                    throw new Exception(e);
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Future<CachedCompany> lookup : lookups) {
+            assertEquals("Company V1", lookup.get(5, TimeUnit.SECONDS).getName());
+        }
+        executor.shutdown();
+
+        // The slot is given back just after the reply reaches the callers
+        Bulkhead bulkhead = bulkheads.bulkheadFor("us");
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (bulkhead.getActiveCalls() > 0 && System.nanoTime() < until) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, backendCalls.get());
+        assertEquals(0, bulkhead.getActiveCalls());
+    }
+
+    private CachedCompany lookup() throws Throwable {
+        return await(service.lookupCompany("123", "us", Deadline.after(Duration.ofMillis(900))));
+    }
+
+    // Unwraps the checked exceptions Reactor wraps when blocking
+    private static CachedCompany await(Mono<CachedCompany> lookup) throws Throwable {
+        try {
+            return lookup.block(Duration.ofSeconds(5));
+        } catch (RuntimeException e) {
+            throw Exceptions.unwrap(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.exception.BackendServerException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RequestCoalescerUnitTest {
+
+    private MetricsService metricsService;
+    private RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    public void setUp() {
+        metricsService = Mockito.mock(MetricsService.class);
+        requestCoalescer = new RequestCoalescer(metricsService);
+    }
+
+    @Test
+    public void whenConcurrentCallsForSameKey_thenBackendIsCalledOnce() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger backendCalls = new AtomicInteger();
+        RequestCoalescer.Call<String> call = () -> {
+            backendCalls.incrementAndGet();
+            leaderStarted.countDown();
+            release.await();
+            return "Company";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> callQuietly("123-us", call));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> waiter = executor.submit(() -> callQuietly("123-us", call));
+
+            // Let the waiter join the call in flight before releasing the leader
+            Mockito.verify(metricsService, Mockito.timeout(5000)).incrementCoalescedRequestCount();
+            release.countDown();
+
+            assertEquals("Company", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("Company", waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, backendCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenCallFails_thenErrorIsRaised() {
+        assertThrows(BackendServerException.class, () -> requestCoalescer.execute("123-us", () -> {
+            throw new BackendServerException("Backend server error");
+        }));
+    }
+
+    @Test
+    public void whenCallsAreSequential_thenEachCallsBackend() throws Throwable {
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        requestCoalescer.execute("123-us", backendCalls::incrementAndGet);
+        requestCoalescer.execute("123-us", backendCalls::incrementAndGet);
+
+        assertEquals(2, backendCalls.get());
+        verify(metricsService, times(0)).incrementCoalescedRequestCount();
+    }
+
+    private String callQuietly(String key, RequestCoalescer.Call<String> call) throws Exception {
+        try {
+            return requestCoalescer.execute(key, call);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.backendify.proxy.service;
+
+import com.backendify.proxy.client.BackendConnectionPools;
+import com.backendify.proxy.exception.CompanyNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class WarmUpUnitTest {
+
+    @TempDir
+    Path directory;
+
+    private final MetricsService metricsService = Mockito.mock(MetricsService.class);
+    private final CompanyCacheSnapshot cacheSnapshot = Mockito.mock(CompanyCacheSnapshot.class);
+    private final BackendConnectionPools pools = Mockito.mock(BackendConnectionPools.class);
+    private final CompanyService companyService = Mockito.mock(CompanyService.class);
+    private final WarmUpProperties properties = new WarmUpProperties();
+    private final WarmUp warmUp = new WarmUp(properties, cacheSnapshot, pools, new CompanyResponseParser(new ObjectMapper(), metricsService),
+            companyService, metricsService);
+
+    @Test
+    public void whenRun_thenEveryPhaseRunsInOrderAndIsReported() {
+        properties.setJitIterations(100);
+
+        Map<String, Long> phases = warmUp.run();
+
+        assertEquals(List.of("snapshot", "connections", "jit"), List.copyOf(phases.keySet()));
+        verify(cacheSnapshot).load();
+        verify(pools).warmUp(4);
+        verify(metricsService).recordWarmUpPhase(eq("snapshot"), anyLong());
+        verify(metricsService).recordWarmUpPhase(eq("connections"), anyLong());
+        verify(metricsService).recordWarmUpPhase(eq("jit"), anyLong());
+    }
+
+    @Test
+    public void whenDisabled_thenOnlyTheSnapshotIsRestored() {
+        properties.setEnabled(false);
+
+        assertEquals(List.of("snapshot"), List.copyOf(warmUp.run().keySet()));
+        verify(cacheSnapshot).load();
+        verifyNoInteractions(pools, companyService);
+    }
+
+    @Test
+    public void whenExercisingTheParser_thenSyntheticRepliesAreNotCounted() {
+        assertTrue(warmUp.exerciseParseAndSerialize(10) > 0);
+
+        verify(metricsService, never()).incrementCompanyV1ResponseCount();
+        verify(metricsService, never()).incrementCompanyV2ResponseCount();
+    }
+
+    @Test
+    public void whenPreloadFileIsSet_thenListedCompaniesAreLookedUp() throws Throwable {
+        Path preload = directory.resolve("preload.csv");
+        Files.writeString(preload, "# id,country_iso\n123,us\n\n456,us\nnot-a-line\n789,ru\n");
+        properties.setPreloadPath(preload.toString());
+        properties.setJitIterations(1);
+        when(companyService.lookupCompany("789", "ru")).thenThrow(new CompanyNotFoundException("Company not found"));
+
+        assertTrue(warmUp.run().containsKey("preload"));
+
+        verify(companyService).lookupCompany("123", "us");
+        verify(companyService).lookupCompany("456", "us");
+        verify(companyService).lookupCompany("789", "ru");
+        verify(companyService, times(3)).lookupCompany(anyString(), anyString());
+        verify(metricsService).recordWarmUpPreload(2, 1);
+    }
+}